@@ -0,0 +1,69 @@
+package de.tum.cit.fop.maze;
+
+import java.util.Random;
+
+/**
+ * The generated map the enemy benchmarks run on: a square with a wall border, a wall on about every tenth tile inside
+ * and one enemy per ten tiles. The enemies are placed in the order of the map, row by row, as the loader does it.
+ */
+final class EnemyMap {
+    static final int ENEMY = 4; // The tile type enemies have in map files
+
+    final TileGrid grid = new TileGrid();
+    final int side;
+    final float[] spawnX;
+    final float[] spawnY;
+    final int count;
+
+    /**
+     * Generates a map.
+     *
+     * @param enemies The number of enemies, the map gets ten tiles per enemy.
+     * @param seed    The seed of the walls and the enemy positions.
+     */
+    EnemyMap(int enemies, long seed) {
+        Random random = new Random(seed);
+        side = (int) Math.ceil(Math.sqrt(enemies * 10.0));
+        spawnX = new float[enemies];
+        spawnY = new float[enemies];
+        int spawned = 0;
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                boolean border = x == 0 || y == 0 || x == side - 1 || y == side - 1;
+                if (border || random.nextInt(10) == 0) {
+                    grid.set(x, y, TileGrid.WALL);
+                } else if (spawned < enemies && random.nextInt(8) == 0) {
+                    grid.set(x, y, ENEMY);
+                    spawnX[spawned] = x * TileGrid.TILE_SIZE;
+                    spawnY[spawned++] = y * TileGrid.TILE_SIZE;
+                }
+            }
+        }
+        count = spawned;
+    }
+
+    /**
+     * @return The world coordinate of the middle of the map, on both axes.
+     */
+    float center() {
+        return side * TileGrid.TILE_SIZE / 2f;
+    }
+
+    /**
+     * Creates the enemies of the map in an EnemySystem that simulates all of them in every step.
+     *
+     * @param seed     The seed of the enemies' random directions.
+     * @param parallel {@code true} to advance the enemies on all cores.
+     * @return The EnemySystem.
+     */
+    EnemySystem spawn(long seed, boolean parallel) {
+        EnemySystem enemies = new EnemySystem();
+        enemies.setSeed(seed);
+        enemies.setParallel(parallel);
+        enemies.setActiveRadius(EnemySystem.ALL_ACTIVE);
+        for (int i = 0; i < count; i++) {
+            enemies.spawn(spawnX[i], spawnY[i]);
+        }
+        return enemies;
+    }
+}
@@ -0,0 +1,113 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The update of the Enemy class before EnemySystem, kept as the baseline of the enemies benchmark. The animations
+ * are left out, they were shared between all enemies and are not touched by the update.
+ */
+final class LegacyEnemy {
+    private static final float STEP_DISTANCE = 300;
+    private final TileGrid grid;
+    private final List<String> directionList = new ArrayList<>(Arrays.asList("up", "right", "down", "left"));
+    private final Rectangle rect;
+    private final float speed = 100f;
+    private String direction;
+    private int prevIndex = -1;
+    private float stepsRemaining = STEP_DISTANCE;
+    private float sinusInput;
+    private float prevX;
+    private float prevY;
+    private float x;
+    private float y;
+
+    LegacyEnemy(float x, float y, TileGrid grid) {
+        this.x = x;
+        this.y = y;
+        this.grid = grid;
+        this.rect = new Rectangle(x, y, 60, 60);
+        this.direction = getDirection();
+    }
+
+    void update(float delta) {
+        float movement = speed * delta;
+        if (stepsRemaining > 0) {
+            move(movement, delta);
+            stepsRemaining -= movement;
+            if (stepsRemaining <= 0) {
+                stepsRemaining = STEP_DISTANCE;
+                direction = getDirection();
+            }
+        }
+        rect.setPosition(x, y);
+    }
+
+    void move(float distance, float delta) {
+        switch (direction) {
+            case "left":
+                if (checkEnemyMovement(x - distance, y + 10) && checkEnemyMovement(x - distance, y + 50)) {
+                    prevX = x;
+                    x -= distance;
+                    rect.setX(x);
+                    sinusInput += delta;
+                }
+                break;
+            case "right":
+                if (checkEnemyMovement(x + 60 + distance, y + 10) && checkEnemyMovement(x + 60 + distance, y + 50)) {
+                    prevX = x;
+                    x += distance;
+                    rect.setX(x);
+                    sinusInput += delta;
+                }
+                break;
+            case "up":
+                if (checkEnemyMovement(x + 10, y + 60 + distance) && checkEnemyMovement(x + 50, y + 60 + distance)) {
+                    prevY = y;
+                    y += distance;
+                    rect.setY(y);
+                    sinusInput += delta;
+                }
+                break;
+            case "down":
+                if (checkEnemyMovement(x + 10, y - distance) && checkEnemyMovement(x + 50, y - distance)) {
+                    prevY = y;
+                    y -= distance;
+                    rect.setY(y);
+                    sinusInput += delta;
+                }
+                break;
+        }
+    }
+
+    String getDirection() {
+        int index = MathUtils.random(0, 3);
+        while (index == prevIndex) {
+            index = MathUtils.random(0, 3);
+        }
+        prevIndex = index;
+        return directionList.get(index);
+    }
+
+    boolean checkEnemyMovement(float x, float y) {
+        return switch (grid.getAtWorld(x, y)) {
+            case 0, 1, 2, 3 -> {
+                direction = getDirection();
+                yield false;
+            }
+            default -> true;
+        };
+    }
+
+    float getX() {
+        return x;
+    }
+
+    float getY() {
+        return y;
+    }
+}
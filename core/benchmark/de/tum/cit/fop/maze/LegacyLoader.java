@@ -0,0 +1,37 @@
+package de.tum.cit.fop.maze;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * The loader MazeLoader used before MazeTextParser, kept as the baseline of the parse benchmark.
+ */
+final class LegacyLoader {
+    private LegacyLoader() {
+    }
+
+    /**
+     * Reads a map line by line with String.split.
+     *
+     * @param fileName The path of the map.
+     * @param mazeData The grid the tiles are set in.
+     */
+    static void load(String fileName, TileGrid mazeData) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("=");
+                if (parts.length == 2) {
+                    String[] coordinates = parts[0].split(",");
+                    if (coordinates.length == 2) {
+                        int x = Integer.parseInt(coordinates[0]);
+                        int y = Integer.parseInt(coordinates[1]);
+                        int objectType = Integer.parseInt(parts[1]);
+                        mazeData.set(x, y, objectType);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,625 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The MazeBenchmark class contains small command line benchmarks for the game's hot paths.
+ * Usage: {@code MazeBenchmark <scenario> [size]}, run it with the :core:benchmark Gradle task. The benchmarks are their
+ * own source set and are not part of the game.
+ * <p>
+ * Scenarios:
+ * <ul>
+ *     <li>parse - text map parsing, old split based loader against MazeTextParser</li>
+ *     <li>load - loading growing maps from their text with MazeTextParser against from their compiled form with
+ *     MazeBinary</li>
+ *     <li>collision - hero collision queries against a growing number of entities, linear scan against SpatialHash</li>
+ *     <li>enemies - simulation steps of a growing number of enemies, one object per enemy against EnemySystem,
+ *     sequential and parallel</li>
+ *     <li>chase - FlowField rebuilds on growing maps, and enemy steps with the field against wandering enemies</li>
+ *     <li>dormant - simulation steps of a growing number of enemies, all of them against the active area around the
+ *     hero only</li>
+ *     <li>sounds - the audio calls of minutes of walking under constant enemy contact, one play per event against
+ *     SoundScheduler</li>
+ *     <li>platforms - the hero's jump check and a view query against a growing number of platforms, linear scan against
+ *     PlatformIndex</li>
+ * </ul>
+ */
+public class MazeBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static volatile int sink;
+
+    private MazeBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String scenario = args.length > 0 ? args[0] : "parse";
+        switch (scenario) {
+            case "parse" -> parse(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+            case "load" -> load(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+            case "collision" -> collision(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+            case "enemies" -> enemies(args.length > 1 ? Integer.parseInt(args[1]) : 100_000);
+            case "chase" -> chase(args.length > 1 ? Integer.parseInt(args[1]) : 100_000);
+            case "dormant" -> dormant(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+            case "sounds" -> sounds(args.length > 1 ? Integer.parseInt(args[1]) : 10);
+            case "platforms" -> platforms(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+            default -> {
+                System.err.println("Unknown scenario: " + scenario);
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Generates a map with the given number of lines and parses it with both loaders.
+     */
+    private static void parse(int lines) throws IOException {
+        Path map = Files.createTempFile("maze-benchmark", ".properties");
+        try {
+            writeMap(map, lines);
+            System.out.println("Parsing " + lines + " lines (" + Files.size(map) / 1024 + " KiB)");
+            report("split loader", map, true);
+            report("MazeTextParser", map, false);
+        } finally {
+            Files.delete(map);
+        }
+    }
+
+    /**
+     * Writes a square text map with the given number of lines and random tile types.
+     */
+    private static void writeMap(Path map, int lines) throws IOException {
+        int side = (int) Math.ceil(Math.sqrt(lines));
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(map)) {
+            for (int i = 0; i < lines; i++) {
+                writer.write((i % side) + "," + (i / side) + "=" + random.nextInt(7));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Generates maps with a growing number of lines up to the given one, compiles each of them and loads the same tiles
+     * from the text with MazeTextParser and from the compiled file with MazeBinary. Maps above
+     * {@link MazeBinary#STREAMING_THRESHOLD} tiles are streamed, so their compiled load only maps the file.
+     */
+    private static void load(int maxLines) throws IOException {
+        Path text = Files.createTempFile("maze-benchmark", ".properties");
+        Path binary = MazeBinary.compiledPath(text.toString());
+        try {
+            System.out.println("   Lines   text KiB  compiled KiB    MazeTextParser        MazeBinary");
+            for (int lines = 10_000; lines <= maxLines; lines *= 10) {
+                writeMap(text, lines);
+                TileGrid parsed = new TileGrid();
+                MazeLoader.readTextMap(text.toString(), parsed);
+                MazeBinary.write(parsed, binary);
+                TileGrid compiled = new TileGrid();
+                MazeBinary.read(binary, compiled);
+                boolean identical = compiled.getMinX() == parsed.getMinX() && compiled.getMaxX() == parsed.getMaxX()
+                        && compiled.getMinY() == parsed.getMinY() && compiled.getMaxY() == parsed.getMaxY();
+                for (int y = parsed.getMinY(); identical && y <= parsed.getMaxY(); y++) {
+                    for (int x = parsed.getMinX(); x <= parsed.getMaxX(); x++) {
+                        identical &= compiled.get(x, y) == parsed.get(x, y);
+                    }
+                }
+
+                long textTime = Long.MAX_VALUE;
+                long binaryTime = Long.MAX_VALUE;
+                for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    MazeLoader.readTextMap(text.toString(), new TileGrid());
+                    long textRound = System.nanoTime() - start;
+                    start = System.nanoTime();
+                    MazeBinary.read(binary, new TileGrid());
+                    long binaryRound = System.nanoTime() - start;
+                    if (round >= WARMUP_ROUNDS) {
+                        textTime = Math.min(textTime, textRound);
+                        binaryTime = Math.min(binaryTime, binaryRound);
+                    }
+                }
+                System.out.printf("%8d  %9d  %12d  %11.3f ms  %11.3f ms  %s%n", lines, Files.size(text) / 1024,
+                        Files.size(binary) / 1024, textTime / 1e6, binaryTime / 1e6,
+                        identical ? (compiled.isStreamed() ? "streamed" : "") : "DIFFERENT TILES");
+            }
+        } finally {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    /**
+     * Places entities with a constant density, one per ten tiles, so the map grows with the entity count the way the
+     * generated stress maps do, and measures the hero's collision query with a linear scan and with a SpatialHash.
+     * The hash's cost per query should stay flat while the scan grows linearly.
+     */
+    private static void collision(int maxEntities) {
+        final int queries = 100_000;
+        System.out.println("Entities   linear scan   spatial hash   hash move");
+        for (int count = 1_000; count <= maxEntities; count *= 10) {
+            Random random = new Random(42);
+            float side = (float) Math.sqrt(count * 10.0) * TileGrid.TILE_SIZE;
+            Rectangle[] entities = new Rectangle[count];
+            SpatialHash<Rectangle> hash = new SpatialHash<>(TileGrid.TILE_SIZE, TileGrid.TILE_SIZE);
+            for (int i = 0; i < count; i++) {
+                entities[i] = new Rectangle(random.nextFloat() * side, random.nextFloat() * side, 60, 60);
+                hash.add(entities[i], entities[i].x, entities[i].y);
+            }
+            float[] heroX = new float[queries];
+            float[] heroY = new float[queries];
+            for (int i = 0; i < queries; i++) {
+                heroX[i] = random.nextFloat() * side;
+                heroY[i] = random.nextFloat() * side;
+            }
+            Rectangle hero = new Rectangle(0, 0, 40, 40);
+            Array<Rectangle> nearby = new Array<>(false, 16);
+
+            // Fewer linear queries for large counts, the cost per query is what matters
+            int linearQueries = (int) Math.max(100, Math.min(queries, 1_000_000_000L / count / 10));
+            int hits = 0;
+            long linear = Long.MAX_VALUE;
+            long hashed = Long.MAX_VALUE;
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int q = 0; q < linearQueries; q++) {
+                    hero.setPosition(heroX[q], heroY[q]);
+                    for (Rectangle entity : entities) {
+                        if (entity.overlaps(hero)) {
+                            hits++;
+                        }
+                    }
+                }
+                long time = (System.nanoTime() - start) / linearQueries;
+                start = System.nanoTime();
+                for (int q = 0; q < queries; q++) {
+                    hero.setPosition(heroX[q], heroY[q]);
+                    nearby.clear();
+                    hash.query(hero.x, hero.y, hero.width, hero.height, nearby);
+                    for (Rectangle entity : nearby) {
+                        if (entity.overlaps(hero)) {
+                            hits++;
+                        }
+                    }
+                }
+                long hashTime = (System.nanoTime() - start) / queries;
+                if (round >= WARMUP_ROUNDS) {
+                    linear = Math.min(linear, time);
+                    hashed = Math.min(hashed, hashTime);
+                }
+            }
+
+            // Every entity takes a small step, as enemies do in one simulation step
+            long move = Long.MAX_VALUE;
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (Rectangle entity : entities) {
+                    float x = entity.x;
+                    float y = entity.y;
+                    entity.setPosition(x + random.nextFloat() * 2 - 1, y + random.nextFloat() * 2 - 1);
+                    hash.move(entity, x, y, entity.x, entity.y);
+                }
+                if (round >= WARMUP_ROUNDS) {
+                    move = Math.min(move, (System.nanoTime() - start) / count);
+                }
+            }
+            sink = hits; // Keeps the JIT from removing the queries
+            System.out.printf("%8d  %9d ns  %10d ns  %6d ns/entity%n", count, linear, hashed, move);
+        }
+    }
+
+    /**
+     * Builds an open map with scattered walls, one enemy per ten tiles, and runs one second of simulation steps with the
+     * enemies as objects, the way Enemy worked before, and with EnemySystem. Both paths keep their spatial hash updated.
+     * EnemySystem runs once sequentially and once in parallel, and the enemies must end up in the same places.
+     */
+    private static void enemies(int maxEnemies) {
+        final int steps = 120;
+        System.out.println("Running on " + Runtime.getRuntime().availableProcessors() + " cores");
+        System.out.println(" Enemies   objects          EnemySystem      parallel");
+        for (int target = 1_000; target <= maxEnemies; target *= 10) {
+            EnemyMap map = new EnemyMap(target, 42);
+            TileGrid grid = map.grid;
+            int count = map.count;
+
+            long objects = Long.MAX_VALUE;
+            long system = Long.MAX_VALUE;
+            long parallel = Long.MAX_VALUE;
+            boolean identical = true;
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                MathUtils.random.setSeed(round);
+                List<LegacyEnemy> legacy = new ArrayList<>(count);
+                SpatialHash<LegacyEnemy> legacyIndex = new SpatialHash<>(TileGrid.TILE_SIZE, TileGrid.TILE_SIZE);
+                for (int i = 0; i < count; i++) {
+                    LegacyEnemy enemy = new LegacyEnemy(map.spawnX[i], map.spawnY[i], grid);
+                    legacy.add(enemy);
+                    legacyIndex.add(enemy, enemy.getX(), enemy.getY());
+                }
+                long start = System.nanoTime();
+                for (int step = 0; step < steps; step++) {
+                    for (LegacyEnemy enemy : legacy) {
+                        float oldX = enemy.getX();
+                        float oldY = enemy.getY();
+                        enemy.update(Simulation.STEP);
+                        legacyIndex.move(enemy, oldX, oldY, enemy.getX(), enemy.getY());
+                    }
+                }
+                long objectTime = (System.nanoTime() - start) / steps;
+
+                EnemySystem sequential = map.spawn(round, false);
+                long systemTime = runEnemies(sequential, grid, steps);
+                EnemySystem concurrent = map.spawn(round, true);
+                long parallelTime = runEnemies(concurrent, grid, steps);
+                for (int i = 0; i < count; i++) {
+                    identical &= sequential.getX(i) == concurrent.getX(i) && sequential.getY(i) == concurrent.getY(i)
+                            && sequential.getDirection(i) == concurrent.getDirection(i);
+                }
+                if (round >= WARMUP_ROUNDS) {
+                    objects = Math.min(objects, objectTime);
+                    system = Math.min(system, systemTime);
+                    parallel = Math.min(parallel, parallelTime);
+                }
+            }
+            System.out.printf("%8d  %8.3f ms/step  %8.3f ms/step  %8.3f ms/step  %s%n", count, objects / 1e6,
+                    system / 1e6, parallel / 1e6, identical ? "identical" : "DIFFERENT");
+        }
+    }
+
+    /**
+     * Generates maps of growing size with scattered walls and one enemy per ten tiles. Measures how long the FlowField takes to
+     * follow the hero to the next tile, which should not grow with the map, and a simulation step of the enemies with and
+     * without the field.
+     */
+    private static void chase(int maxEnemies) {
+        final int steps = 120;
+        System.out.println(" Enemies   field rebuild   wandering         chasing");
+        for (int target = 1_000; target <= maxEnemies; target *= 10) {
+            EnemyMap map = new EnemyMap(target, 42);
+            TileGrid grid = map.grid;
+            FlowField field = new FlowField(12);
+            int heroX = map.side / 2;
+            int heroY = map.side / 2;
+
+            long rebuild = Long.MAX_VALUE;
+            long wandering = Long.MAX_VALUE;
+            long chasing = Long.MAX_VALUE;
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < 1_000; i++) {
+                    field.update(heroX + (i & 1), heroY, grid); // The hero steps back and forth between two tiles
+                }
+                long rebuildTime = (System.nanoTime() - start) / 1_000;
+
+                EnemySystem wanderers = map.spawn(round, false);
+                long wanderTime = runEnemies(wanderers, grid, steps);
+                EnemySystem chasers = map.spawn(round, false);
+                chasers.setFlowField(field);
+                long chaseTime = runEnemies(chasers, grid, steps);
+                if (round >= WARMUP_ROUNDS) {
+                    rebuild = Math.min(rebuild, rebuildTime);
+                    wandering = Math.min(wandering, wanderTime);
+                    chasing = Math.min(chasing, chaseTime);
+                }
+            }
+            System.out.printf("%8d  %10d ns  %8.3f ms/step  %8.3f ms/step%n", map.count, rebuild, wandering / 1e6,
+                    chasing / 1e6);
+        }
+    }
+
+    /**
+     * Generates maps of growing size with scattered walls and one enemy per ten tiles, and measures a simulation step with
+     * every enemy active and with only the enemies around a hero in the middle of the map. The second should not grow
+     * with the map. The hero then walks to a corner of the map and back, so the enemies it passes wake up after a
+     * few seconds of sleep; none of them may end up inside a wall.
+     */
+    private static void dormant(int maxEnemies) {
+        final int steps = 120;
+        System.out.println(" Enemies   all active       active area      active  walls");
+        for (int target = 1_000; target <= maxEnemies; target *= 10) {
+            EnemyMap map = new EnemyMap(target, 42);
+            TileGrid grid = map.grid;
+            float center = map.center();
+
+            long all = Long.MAX_VALUE;
+            long area = Long.MAX_VALUE;
+            int active = 0;
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                EnemySystem everyone = map.spawn(round, false);
+                long allTime = runEnemies(everyone, grid, steps);
+                EnemySystem nearby = map.spawn(round, false);
+                nearby.setActiveRadius(16);
+                nearby.setFocus(center, center);
+                long areaTime = runEnemies(nearby, grid, steps);
+                active = nearby.activeCount();
+                if (round >= WARMUP_ROUNDS) {
+                    all = Math.min(all, allTime);
+                    area = Math.min(area, areaTime);
+                }
+            }
+
+            EnemySystem walked = map.spawn(0, false);
+            walked.setActiveRadius(16);
+            int woken = 0;
+            float corner = 20 * TileGrid.TILE_SIZE;
+            for (int pass = 0; pass < 2; pass++) {
+                for (int step = 0; step <= 600; step++) {
+                    float t = step / 600f;
+                    float focus = pass == 0 ? center + (corner - center) * t : corner + (center - corner) * t;
+                    walked.setFocus(focus, focus);
+                    walked.update(Simulation.STEP, grid);
+                    woken += walked.activeCount();
+                }
+            }
+            int inWalls = 0;
+            for (int i = 0; i < map.count; i++) {
+                inWalls += overlapsWall(grid, walked.getX(i), walked.getY(i)) ? 1 : 0;
+            }
+            System.out.printf("%8d  %8.3f ms/step  %8.3f ms/step  %8d  %s%n", map.count, all / 1e6, area / 1e6, active,
+                    inWalls == 0 ? "clean" : inWalls + " IN WALLS");
+            sink = woken;
+        }
+    }
+
+    /**
+     * @return {@code true} if an enemy at the given position overlaps a tile it may not walk on, apart from the inset
+     * by which its sides may brush past corners.
+     */
+    private static boolean overlapsWall(TileGrid grid, float x, float y) {
+        float inset = EnemySystem.INSET + 0.5f;
+        int fromX = MathUtils.floor((x + inset) / TileGrid.TILE_SIZE);
+        int fromY = MathUtils.floor((y + inset) / TileGrid.TILE_SIZE);
+        int toX = MathUtils.ceil((x + EnemySystem.SIZE - inset) / TileGrid.TILE_SIZE) - 1;
+        int toY = MathUtils.ceil((y + EnemySystem.SIZE - inset) / TileGrid.TILE_SIZE) - 1;
+        for (int tileY = fromY; tileY <= toY; tileY++) {
+            for (int tileX = fromX; tileX <= toX; tileX++) {
+                if (!EnemySystem.isWalkable(grid.get(tileX, tileY))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Posts the effects of the given number of minutes of play at 60 frames per second: footsteps in every step,
+     * a hit in one step of ten as under a crowd of enemies, and a key now and then. Counts the calls that reach the
+     * audio backend when every event plays its sound against when the events go through a SoundScheduler.
+     */
+    private static void sounds(int minutes) {
+        CountingSound walking = new CountingSound();
+        CountingSound hurt = new CountingSound();
+        CountingSound coin = new CountingSound();
+        SoundScheduler scheduler = new SoundScheduler(new AudioBus(null));
+        int walkingEffect = scheduler.register(walking, 0.55f, 0.55f, 1, 0);
+        int hurtEffect = scheduler.register(hurt, 0.95f, 0.25f, 2, 1);
+        int coinEffect = scheduler.register(coin, 1.34f, 0.1f, 2, 2);
+        Random random = new Random(42);
+        long events = 0;
+        int maxVoices = 0;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < minutes * 60 * 60; frame++) {
+            for (int step = 0; step < 2; step++) {
+                scheduler.post(walkingEffect);
+                events++;
+                if (random.nextInt(10) == 0) {
+                    scheduler.post(hurtEffect);
+                    events++;
+                }
+                if (random.nextInt(12_000) == 0) {
+                    scheduler.post(coinEffect);
+                    events++;
+                }
+            }
+            scheduler.update(1 / 60f);
+            maxVoices = Math.max(maxVoices, scheduler.getVoiceCount());
+        }
+        long time = System.nanoTime() - start;
+        long calls = walking.calls + hurt.calls + coin.calls;
+        System.out.printf("%d min: %d events, %d audio calls with one play per event%n", minutes, events, events);
+        System.out.printf("Scheduled: %d audio calls (%.0f per minute), %d started, %d stolen, %d dropped,"
+                        + " at most %d voices, %.3f ms%n", calls, calls / (double) minutes, scheduler.getStarted(),
+                scheduler.getStolen(), scheduler.getDropped(), maxVoices, time / 1e6);
+    }
+
+    /**
+     * A sound that only counts the calls that would start or stop a voice.
+     */
+    private static final class CountingSound implements Sound {
+        private long calls;
+        private long nextId;
+
+        @Override
+        public long play() {
+            return play(1);
+        }
+
+        @Override
+        public long play(float volume) {
+            calls++;
+            return nextId++;
+        }
+
+        @Override
+        public long play(float volume, float pitch, float pan) {
+            return play(volume);
+        }
+
+        @Override
+        public long loop() {
+            return play(1);
+        }
+
+        @Override
+        public long loop(float volume) {
+            return play(volume);
+        }
+
+        @Override
+        public long loop(float volume, float pitch, float pan) {
+            return play(volume);
+        }
+
+        @Override
+        public void stop() {
+            calls++;
+        }
+
+        @Override
+        public void pause() {
+        }
+
+        @Override
+        public void resume() {
+        }
+
+        @Override
+        public void dispose() {
+        }
+
+        @Override
+        public void stop(long soundId) {
+            calls++;
+        }
+
+        @Override
+        public void pause(long soundId) {
+        }
+
+        @Override
+        public void resume(long soundId) {
+        }
+
+        @Override
+        public void setLooping(long soundId, boolean looping) {
+        }
+
+        @Override
+        public void setPitch(long soundId, float pitch) {
+        }
+
+        @Override
+        public void setVolume(long soundId, float volume) {
+        }
+
+        @Override
+        public void setPan(long soundId, float pan, float volume) {
+        }
+    }
+
+    /**
+     * Fills a third of the tiles of a square map with platforms, as platform-heavy maps do, and measures the hero's jump
+     * check and a query of a screen-sized view with a linear scan and with a PlatformIndex. Both must find the same
+     * platforms.
+     */
+    private static void platforms(int maxPlatforms) {
+        final int queries = 100_000;
+        System.out.println("Platforms   jump scan   jump index   view scan   view index");
+        for (int count = 1_000; count <= maxPlatforms; count *= 10) {
+            Random random = new Random(42);
+            int side = (int) Math.ceil(Math.sqrt(count * 3.0));
+            Rectangle[] platforms = new Rectangle[count];
+            PlatformIndex index = new PlatformIndex();
+            for (int i = 0; i < count; i++) {
+                int tile = random.nextInt(side * side);
+                platforms[i] = new Rectangle(tile % side * 60, tile / side * 60, 60, 10);
+                index.add(platforms[i]);
+            }
+            float[] heroX = new float[queries];
+            float[] heroY = new float[queries];
+            for (int i = 0; i < queries; i++) {
+                heroX[i] = random.nextFloat() * side * 60;
+                heroY[i] = random.nextFloat() * side * 60;
+            }
+            Rectangle hero = new Rectangle(0, 0, 40, 40);
+            Rectangle view = new Rectangle(0, 0, 1920, 1080);
+            Array<Rectangle> nearby = new Array<>(false, 64);
+
+            int linearQueries = (int) Math.max(100, Math.min(queries, 1_000_000_000L / count / 10));
+            long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+            boolean identical = true;
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                for (int kind = 0; kind < 2; kind++) {
+                    Rectangle area = kind == 0 ? hero : view;
+                    int scanHits = 0;
+                    long start = System.nanoTime();
+                    for (int q = 0; q < linearQueries; q++) {
+                        area.setPosition(heroX[q], heroY[q]);
+                        for (Rectangle platform : platforms) {
+                            if (platform.overlaps(area)) {
+                                scanHits++;
+                            }
+                        }
+                    }
+                    long scan = (System.nanoTime() - start) / linearQueries;
+                    int indexHits = 0;
+                    int checkedHits = 0;
+                    start = System.nanoTime();
+                    for (int q = 0; q < queries; q++) {
+                        area.setPosition(heroX[q], heroY[q]);
+                        nearby.clear();
+                        index.query(area.x, area.y, area.width, area.height, nearby);
+                        indexHits += nearby.size;
+                        if (q == linearQueries - 1) {
+                            checkedHits = indexHits;
+                        }
+                    }
+                    long indexed = (System.nanoTime() - start) / queries;
+                    identical &= scanHits == checkedHits;
+                    sink = indexHits;
+                    if (round >= WARMUP_ROUNDS) {
+                        best[2 * kind] = Math.min(best[2 * kind], scan);
+                        best[2 * kind + 1] = Math.min(best[2 * kind + 1], indexed);
+                    }
+                }
+            }
+            System.out.printf("%9d  %7d ns  %8d ns  %7d ns  %8d ns  %s%n", count, best[0], best[1], best[2], best[3],
+                    identical ? "identical" : "DIFFERENT");
+        }
+    }
+
+    /**
+     * @return The mean time of a step in nanoseconds.
+     */
+    private static long runEnemies(EnemySystem enemies, TileGrid grid, int steps) {
+        long start = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            enemies.update(Simulation.STEP, grid);
+        }
+        return (System.nanoTime() - start) / steps;
+    }
+
+    private static void report(String name, Path map, boolean legacy) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            load(map, legacy);
+        }
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            load(map, legacy);
+            long time = System.nanoTime() - start;
+            best = Math.min(best, time);
+            total += time;
+        }
+        System.out.printf("%-16s best %6.1f ms, mean %6.1f ms%n", name, best / 1e6, total / 1e6 / MEASURED_ROUNDS);
+    }
+
+    private static void load(Path map, boolean legacy) throws IOException {
+        TileGrid grid = new TileGrid();
+        if (legacy) {
+            LegacyLoader.load(map.toString(), grid);
+        } else {
+            MazeLoader.readTextMap(map.toString(), grid);
+        }
+    }
+}
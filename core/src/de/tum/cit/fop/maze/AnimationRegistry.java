@@ -0,0 +1,94 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * The AnimationRegistry class hands out the animations and regions of the game objects from the shared sprite atlas.
+ * Every animation is created once per sprite sheet area and then shared by all objects that ask for it,
+ * so a map with hundreds of enemies still uses one texture and one set of animation objects.
+ * The atlas is loaded by the AssetManager in MazeRunnerGame and registered with {@link #setAtlas(TextureAtlas)}.
+ */
+public final class AnimationRegistry {
+    private static TextureAtlas atlas;
+    private static final ObjectMap<String, TextureRegion> sheets = new ObjectMap<>();
+    private static final ObjectMap<String, Animation<TextureRegion>> animations = new ObjectMap<>();
+
+    private AnimationRegistry() {
+    }
+
+    /**
+     * Sets the atlas the regions are taken from and forgets the animations of a previous atlas.
+     *
+     * @param atlas The atlas written by AtlasPacker.
+     */
+    public static void setAtlas(TextureAtlas atlas) {
+        AnimationRegistry.atlas = atlas;
+        sheets.clear();
+        animations.clear();
+    }
+
+    /**
+     * Returns the shared animation for a row or column of equally sized frames on a sprite sheet.
+     *
+     * @param sheet       The file name of the sprite sheet, e.g. "mobs.png".
+     * @param imageX      The x-coordinate of the first frame on the sheet.
+     * @param imageY      The y-coordinate of the first frame on the sheet.
+     * @param frameWidth  The width of each frame.
+     * @param frameHeight The height of each frame.
+     * @param frames      The number of frames.
+     * @param duration    The duration of each frame in seconds.
+     * @param vertical    {@code true} if the frames are below each other, {@code false} if they are next to each other.
+     * @return The animation, the same instance for equal arguments.
+     */
+    public static Animation<TextureRegion> getAnimation(String sheet, int imageX, int imageY, int frameWidth, int frameHeight,
+                                                        int frames, float duration, boolean vertical) {
+        String key = sheet + ':' + imageX + ',' + imageY + ',' + frameWidth + 'x' + frameHeight + '*' + frames
+                + '@' + duration + (vertical ? 'v' : 'h');
+        Animation<TextureRegion> animation = animations.get(key);
+        if (animation == null) {
+            Array<TextureRegion> keyFrames = new Array<>(TextureRegion.class);
+            for (int i = 0; i < frames; i++) {
+                int x = vertical ? imageX : imageX + i * frameWidth;
+                int y = vertical ? imageY + i * frameHeight : imageY;
+                keyFrames.add(getRegion(sheet, x, y, frameWidth, frameHeight));
+            }
+            animation = new Animation<>(duration, keyFrames);
+            animations.put(key, animation);
+        }
+        return animation;
+    }
+
+    /**
+     * Returns a region of a sprite sheet. Regions are cheap views on the atlas page and are not cached.
+     *
+     * @param sheet  The file name of the sprite sheet, e.g. "objects.png".
+     * @param x      The x-coordinate of the region on the sheet.
+     * @param y      The y-coordinate of the region on the sheet.
+     * @param width  The width of the region.
+     * @param height The height of the region.
+     * @return The region on the atlas page.
+     */
+    public static TextureRegion getRegion(String sheet, int x, int y, int width, int height) {
+        return new TextureRegion(getSheet(sheet), x, y, width, height);
+    }
+
+    private static TextureRegion getSheet(String sheet) {
+        TextureRegion region = sheets.get(sheet);
+        if (region == null) {
+            if (atlas == null) {
+                throw new GdxRuntimeException("The sprite atlas is not loaded yet");
+            }
+            region = atlas.findRegion(AtlasPacker.regionName(sheet));
+            if (region == null) {
+                throw new GdxRuntimeException("Sprite sheet not in the atlas: " + sheet);
+            }
+            sheets.put(sheet, region);
+        }
+        return region;
+    }
+}
@@ -0,0 +1,124 @@
+package de.tum.cit.fop.maze;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The AtlasPacker class packs the sprite sheets of the game objects into one texture page and writes a libGDX ".atlas"
+ * file for it, so all objects are drawn from a single texture.
+ * Usage: {@code AtlasPacker [assets directory]}, run it with the :core:packTextures Gradle task after changing a sheet.
+ * Every sheet becomes one region named after its file; the frames are cut out of the regions by AnimationRegistry.
+ */
+public class AtlasPacker {
+    static final String[] SHEETS = {"objects.png", "character.png", "basictiles.png", "mobs.png", "things.png"};
+    static final String ATLAS = "sprites.atlas";
+    private static final String PAGE = "sprites.png";
+    private static final int PADDING = 2; // Empty pixels between sheets
+    private static final int MAX_PAGE_SIZE = 4096;
+
+    private record Sheet(String name, BufferedImage image) {
+    }
+
+    private record Placement(Sheet sheet, int x, int y) {
+    }
+
+    private AtlasPacker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path assets = Path.of(args.length > 0 ? args[0] : "assets");
+        List<Sheet> sheets = new ArrayList<>();
+        for (String file : SHEETS) {
+            sheets.add(new Sheet(regionName(file), ImageIO.read(assets.resolve(file).toFile())));
+        }
+        sheets.sort(Comparator.comparingInt((Sheet sheet) -> sheet.image.getHeight()).reversed());
+
+        // Try every power of two page size and keep the smallest one everything fits on
+        List<Placement> best = null;
+        int bestWidth = 0;
+        int bestHeight = 0;
+        for (int width = 64; width <= MAX_PAGE_SIZE; width *= 2) {
+            for (int height = 64; height <= MAX_PAGE_SIZE; height *= 2) {
+                if (best != null && width * height >= bestWidth * bestHeight) {
+                    continue;
+                }
+                List<Placement> placements = pack(sheets, width, height);
+                if (placements != null) {
+                    best = placements;
+                    bestWidth = width;
+                    bestHeight = height;
+                }
+            }
+        }
+        if (best == null) {
+            throw new IOException("Sheets do not fit on a " + MAX_PAGE_SIZE + " page");
+        }
+
+        BufferedImage page = new BufferedImage(bestWidth, bestHeight, BufferedImage.TYPE_INT_ARGB);
+        for (Placement placement : best) {
+            // Copy the pixels as they are, drawing the image would blend semi-transparent pixels
+            BufferedImage image = placement.sheet.image;
+            int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+            page.setRGB(placement.x, placement.y, image.getWidth(), image.getHeight(), pixels, 0, image.getWidth());
+        }
+        ImageIO.write(page, "png", assets.resolve(PAGE).toFile());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(assets.resolve(ATLAS))) {
+            writer.write(PAGE + "\n");
+            writer.write("size:" + bestWidth + "," + bestHeight + "\n");
+            writer.write("format:RGBA8888\n");
+            writer.write("filter:Nearest,Nearest\n"); // Pixel art, same as the default of a plain Texture
+            writer.write("repeat:none\n");
+            for (Placement placement : best) {
+                writer.write(placement.sheet.name + "\n");
+                writer.write("  bounds:" + placement.x + "," + placement.y + ","
+                        + placement.sheet.image.getWidth() + "," + placement.sheet.image.getHeight() + "\n");
+            }
+        }
+        System.out.println(best.size() + " sheets -> " + assets.resolve(PAGE) + " (" + bestWidth + "x" + bestHeight + ")");
+    }
+
+    /**
+     * Places the sheets in rows from left to right, tallest first.
+     *
+     * @return The placements, or {@code null} if the sheets do not fit on the page.
+     */
+    private static List<Placement> pack(List<Sheet> sheets, int width, int height) {
+        List<Placement> placements = new ArrayList<>();
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        for (Sheet sheet : sheets) {
+            int sheetWidth = sheet.image.getWidth();
+            int sheetHeight = sheet.image.getHeight();
+            if (x + sheetWidth > width) {
+                x = 0;
+                y += rowHeight + PADDING;
+                rowHeight = 0;
+            }
+            if (sheetWidth > width || y + sheetHeight > height) {
+                return null;
+            }
+            placements.add(new Placement(sheet, x, y));
+            x += sheetWidth + PADDING;
+            rowHeight = Math.max(rowHeight, sheetHeight);
+        }
+        return placements;
+    }
+
+    /**
+     * @param file The file name of a sprite sheet.
+     * @return The name of the sheet's region in the atlas, the file name without extension.
+     */
+    static String regionName(String file) {
+        int dot = file.lastIndexOf('.');
+        return dot < 0 ? file : file.substring(0, dot);
+    }
+}
@@ -0,0 +1,90 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The AudioBus class is one channel of the game's mixer. The buses form a tree, the master bus with the music, sound
+ * effect and interface buses below it, and every bus has a volume and can be muted. The gain a sound is played at is
+ * the product of the volumes from its bus up to the master, or 0 if one of them is muted.
+ * <p>
+ * That gain is kept up to date in every bus whenever a volume above it changes, so playing a sound only reads one
+ * number. {@link #getChanges()} counts the changes of the gain, so the owner of the voices of a bus can tell whether
+ * it has to pass a new volume on to them at all.
+ */
+public class AudioBus {
+    private final AudioBus parent;
+    private final Array<AudioBus> children = new Array<>(false, 4, AudioBus.class);
+    private float volume = 1;
+    private boolean muted;
+    private float gain = 1;
+    private int changes;
+
+    /**
+     * Constructs a bus.
+     *
+     * @param parent The bus above this one, or {@code null} for the master bus.
+     */
+    public AudioBus(AudioBus parent) {
+        this.parent = parent;
+        if (parent != null) {
+            parent.children.add(this);
+            gain = parent.gain;
+        }
+    }
+
+    /**
+     * Sets the volume of the bus.
+     *
+     * @param volume The volume, it is kept between 0 and 1.
+     */
+    public void setVolume(float volume) {
+        this.volume = Math.max(0, Math.min(1, volume));
+        updateGain();
+    }
+
+    public float getVolume() {
+        return volume;
+    }
+
+    public void setMuted(boolean muted) {
+        this.muted = muted;
+        updateGain();
+    }
+
+    public boolean isMuted() {
+        return muted;
+    }
+
+    /**
+     * @return The gain the sounds of this bus are played at, 0 if this bus or one above it is muted.
+     */
+    public float getGain() {
+        return gain;
+    }
+
+    /**
+     * @return {@code false} if this bus or one above it is muted or turned all the way down.
+     */
+    public boolean isAudible() {
+        return gain > 0;
+    }
+
+    /**
+     * @return The number of times the gain of this bus has changed.
+     */
+    public int getChanges() {
+        return changes;
+    }
+
+    private void updateGain() {
+        float gain = muted ? 0 : volume * (parent == null ? 1 : parent.gain);
+        if (gain == this.gain) {
+            return;
+        }
+        this.gain = gain;
+        changes++;
+        for (int i = 0; i < children.size; i++) {
+            children.get(i).updateGain();
+        }
+    }
+}
@@ -70,7 +70,7 @@ private void setupTable() {
         goToMenu.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                game.setScreen(new MenuScreen(game));
+                game.goToMenu();
                 game.getMusicLoader().stopLosingMusic();
                 if (!game.getMusicLoader().isForbiddenMenu()) {
                     game.getMusicLoader().playMenuMusic();
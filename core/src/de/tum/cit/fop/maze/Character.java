@@ -1,7 +1,6 @@
 package de.tum.cit.fop.maze;
 
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import de.tum.cit.fop.maze.GameObject;
 
@@ -11,7 +10,14 @@
  */
 
 public abstract class Character extends GameObject {
-    protected String direction;
+    // The directions a character moves in, in the order of the enemy directions in EnemySystem
+    public static final int IDLE = -1;
+    public static final int UP = 0;
+    public static final int RIGHT = 1;
+    public static final int DOWN = 2;
+    public static final int LEFT = 3;
+
+    protected int direction;
     protected Animation<TextureRegion> leftAnimation;
     protected Animation<TextureRegion> rightAnimation;
     protected Animation<TextureRegion> upAnimation;
@@ -19,6 +25,10 @@ public abstract class Character extends GameObject {
     private float prevX;
     private float prevY;
     protected float sinusInput;
+    private float stepX; // Position at the start of the last simulation step
+    private float stepY;
+    protected float drawX; // Position interpolated between the last two simulation steps, used for drawing
+    protected float drawY;
 
     /**
      * Constructs a Character object with the specified position and dimensions.
@@ -32,7 +42,26 @@ public Character(float x, float y, int rectWidth, int rectHeight) {
         super(x, y, rectWidth, rectHeight);
         this.prevX = x;
         this.prevY = y;
-        this.direction = "down"; // Default direction
+        this.direction = DOWN; // Default direction
+        beginStep();
+    }
+
+    /**
+     * Remembers the current position as the start of the next simulation step and draws the character there.
+     */
+    public void beginStep() {
+        stepX = drawX = x;
+        stepY = drawY = y;
+    }
+
+    /**
+     * Moves the drawn position between the start and the end of the last simulation step.
+     *
+     * @param alpha How far the render time is into the next step, between 0 and 1.
+     */
+    public void interpolate(float alpha) {
+        drawX = stepX + (x - stepX) * alpha;
+        drawY = stepY + (y - stepY) * alpha;
     }
 
     /**
@@ -41,27 +70,40 @@ public Character(float x, float y, int rectWidth, int rectHeight) {
      * @param delta The time in seconds since the last update.
      */
     public abstract void update(float delta);
-    public abstract void draw(SpriteBatch spriteBatch);
+    public abstract void draw(SpriteQueue queue);
 
     /**
      * Retrieves the current animation based on the current movement direction.
+     * The direction animations are loaded together with the idle animation in {@link #loadAnimation()}.
      *
      * @return The Animation<TextureRegion> corresponding to the current movement direction.
      */
     public Animation<TextureRegion> getCurrentAnimation() {
+        Animation<TextureRegion> idle = getAnimation();
         return switch (getDirection()) {
-            case "left" -> leftAnimation;
-            case "right" -> rightAnimation;
-            case "up" -> upAnimation;
-            case "down" -> downAnimation;
-            default -> animation;
+            case LEFT -> leftAnimation;
+            case RIGHT -> rightAnimation;
+            case UP -> upAnimation;
+            case DOWN -> downAnimation;
+            default -> idle;
         };
     }
 
-    public void setDirection(String direction) {
+    /**
+     * @param direction The direction the character moves in, one of the direction constants or {@link #IDLE}.
+     */
+    public void setDirection(int direction) {
         this.direction = direction;
     }
 
+    public float getDrawX() {
+        return drawX;
+    }
+
+    public float getDrawY() {
+        return drawY;
+    }
+
     public float getPrevX() {
         return prevX;
     }
@@ -78,7 +120,7 @@ public void setPrevY(float prevY) {
         this.prevY = prevY;
     }
 
-    public String getDirection() {
+    public int getDirection() {
         return direction;
     }
 }
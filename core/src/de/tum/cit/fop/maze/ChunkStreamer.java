@@ -0,0 +1,150 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntSet;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The ChunkStreamer class keeps the chunks of a streamed TileGrid resident around the camera.
+ * Chunks that come into range are read from the grid's source on a background thread and installed on the render thread,
+ * chunks that leave the range (plus some hysteresis) are evicted and their arrays are reused for the next loads.
+ * This keeps the memory of the tiles bounded by the view size, not by the map size.
+ */
+public class ChunkStreamer implements Disposable {
+    private static final int LOAD_MARGIN = 1; // Chunks loaded around the visible area
+    private static final int EVICT_MARGIN = 3; // Chunks kept around the visible area before they are evicted
+
+    private final TileGrid grid;
+    private final TileGrid.ChunkSource source;
+    private final ExecutorService executor;
+    private final ConcurrentLinkedQueue<LoadedChunk> loaded = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<byte[]> freeChunks = new ConcurrentLinkedQueue<>();
+    private final IntSet pending = new IntSet();
+    private final int minChunkX;
+    private final int minChunkY;
+    private final int maxChunkX;
+    private final int maxChunkY;
+
+    private record LoadedChunk(int chunkX, int chunkY, byte[] tiles) {
+    }
+
+    /**
+     * Constructs a ChunkStreamer for a streamed grid.
+     *
+     * @param grid The grid whose chunks are streamed, {@link TileGrid#isStreamed()} must be {@code true}.
+     */
+    public ChunkStreamer(TileGrid grid) {
+        this.grid = grid;
+        this.source = grid.getSource();
+        this.minChunkX = grid.getMinX() >> TileGrid.CHUNK_SHIFT;
+        this.minChunkY = grid.getMinY() >> TileGrid.CHUNK_SHIFT;
+        this.maxChunkX = grid.getMaxX() >> TileGrid.CHUNK_SHIFT;
+        this.maxChunkY = grid.getMaxY() >> TileGrid.CHUNK_SHIFT;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chunk-streamer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Installs the chunks finished since the last call, requests the chunks that came into view and evicts the ones far away.
+     * Must be called once per frame on the render thread.
+     *
+     * @param camera The camera the resident area follows.
+     */
+    public void update(OrthographicCamera camera) {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        int fromX = toChunk(camera.position.x - halfWidth);
+        int fromY = toChunk(camera.position.y - halfHeight);
+        int toX = toChunk(camera.position.x + halfWidth);
+        int toY = toChunk(camera.position.y + halfHeight);
+
+        LoadedChunk chunk;
+        while ((chunk = loaded.poll()) != null) {
+            pending.remove(key(chunk.chunkX, chunk.chunkY));
+            if (chunk.chunkX >= fromX - EVICT_MARGIN && chunk.chunkX <= toX + EVICT_MARGIN
+                    && chunk.chunkY >= fromY - EVICT_MARGIN && chunk.chunkY <= toY + EVICT_MARGIN) {
+                if (!grid.installChunk(chunk.chunkX, chunk.chunkY, chunk.tiles)) {
+                    freeChunks.offer(chunk.tiles); // Already loaded by loadNow in the meantime
+                }
+            } else {
+                freeChunks.offer(chunk.tiles);
+            }
+        }
+
+        for (int chunkY = Math.max(fromY - LOAD_MARGIN, minChunkY); chunkY <= Math.min(toY + LOAD_MARGIN, maxChunkY); chunkY++) {
+            for (int chunkX = Math.max(fromX - LOAD_MARGIN, minChunkX); chunkX <= Math.min(toX + LOAD_MARGIN, maxChunkX); chunkX++) {
+                request(chunkX, chunkY);
+            }
+        }
+
+        // Iterate backwards, evicting swaps the last resident chunk into the current slot
+        for (int i = grid.getResidentChunkCount() - 1; i >= 0; i--) {
+            int chunkX = grid.getResidentChunkX(i);
+            int chunkY = grid.getResidentChunkY(i);
+            if (chunkX < fromX - EVICT_MARGIN || chunkX > toX + EVICT_MARGIN
+                    || chunkY < fromY - EVICT_MARGIN || chunkY > toY + EVICT_MARGIN) {
+                freeChunks.offer(grid.evictChunk(chunkX, chunkY));
+            }
+        }
+    }
+
+    /**
+     * Loads the chunks around a world position right away, e.g. around the hero when a level starts.
+     *
+     * @param worldX The x-coordinate in world units.
+     * @param worldY The y-coordinate in world units.
+     * @param radius The number of chunks loaded in every direction.
+     */
+    public void loadNow(float worldX, float worldY, int radius) {
+        int centerX = toChunk(worldX);
+        int centerY = toChunk(worldY);
+        for (int chunkY = Math.max(centerY - radius, minChunkY); chunkY <= Math.min(centerY + radius, maxChunkY); chunkY++) {
+            for (int chunkX = Math.max(centerX - radius, minChunkX); chunkX <= Math.min(centerX + radius, maxChunkX); chunkX++) {
+                if (!grid.isResident(chunkX << TileGrid.CHUNK_SHIFT, chunkY << TileGrid.CHUNK_SHIFT)) {
+                    byte[] tiles = TileGrid.newChunk();
+                    source.readChunk(chunkX, chunkY, tiles);
+                    grid.installChunk(chunkX, chunkY, tiles);
+                }
+            }
+        }
+    }
+
+    private void request(int chunkX, int chunkY) {
+        if (grid.isResident(chunkX << TileGrid.CHUNK_SHIFT, chunkY << TileGrid.CHUNK_SHIFT)) {
+            return;
+        }
+        int key = key(chunkX, chunkY);
+        if (!pending.add(key)) {
+            return;
+        }
+        executor.execute(() -> {
+            byte[] tiles = freeChunks.poll();
+            if (tiles == null) {
+                tiles = TileGrid.newChunk();
+            }
+            source.readChunk(chunkX, chunkY, tiles);
+            loaded.offer(new LoadedChunk(chunkX, chunkY, tiles));
+        });
+    }
+
+    private int key(int chunkX, int chunkY) {
+        return (chunkY - minChunkY) * (maxChunkX - minChunkX + 1) + (chunkX - minChunkX);
+    }
+
+    private static int toChunk(float world) {
+        return MathUtils.floor(world / TileGrid.TILE_SIZE) >> TileGrid.CHUNK_SHIFT;
+    }
+
+    @Override
+    public void dispose() {
+        executor.shutdownNow();
+    }
+}
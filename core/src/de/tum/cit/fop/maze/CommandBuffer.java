@@ -0,0 +1,142 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+
+import java.util.Arrays;
+
+/**
+ * The CommandBuffer class turns the key events of the game screen into {@link InputCommand}s for the simulation.
+ * It keeps the held keys as a command and, whenever a key changes it, appends the new command to a ring buffer.
+ * Every simulation step takes the next command from the buffer, or the held keys if the buffer is empty, so a key
+ * that is pressed and released within one frame still moves the hero for a step, even at a low frame rate, and a
+ * jump is never missed or counted twice. The keys are only looked at when they change instead of polled every frame.
+ * <p>
+ * Escape and F3 are not part of a step; they are kept as requests the screen takes with {@link #pollPause()} and
+ * {@link #pollRenderStats()}.
+ */
+public class CommandBuffer extends InputAdapter {
+    private static final int CAPACITY = 64; // Commands buffered at most, a power of two
+    // The keys of the held commands and their bits
+    private static final int[] KEYS = {Input.Keys.LEFT, Input.Keys.A, Input.Keys.RIGHT, Input.Keys.D, Input.Keys.DOWN,
+            Input.Keys.S, Input.Keys.UP, Input.Keys.W, Input.Keys.SPACE};
+    private static final int[] BITS = {InputCommand.LEFT, InputCommand.LEFT, InputCommand.RIGHT, InputCommand.RIGHT,
+            InputCommand.DOWN, InputCommand.DOWN, InputCommand.UP, InputCommand.UP, InputCommand.SPRINT};
+
+    private final boolean[] pressed = new boolean[KEYS.length];
+    private final int[] commands = new int[CAPACITY];
+    private int head; // The next command to take
+    private int size;
+    private int held;
+    private boolean pauseRequested;
+    private boolean renderStatsRequested;
+
+    @Override
+    public boolean keyDown(int keycode) {
+        switch (keycode) {
+            case Input.Keys.SHIFT_LEFT, Input.Keys.SHIFT_RIGHT -> push(held | InputCommand.JUMP);
+            case Input.Keys.ESCAPE -> pauseRequested = true;
+            case Input.Keys.F3 -> renderStatsRequested = true;
+            default -> {
+                return setPressed(keycode, true);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        return setPressed(keycode, false);
+    }
+
+    /**
+     * Takes the command of the next simulation step.
+     *
+     * @return The oldest buffered command, or the held keys if no key changed since the last step.
+     */
+    public int next() {
+        if (size == 0) {
+            return held;
+        }
+        int command = commands[head];
+        head = (head + 1) & (CAPACITY - 1);
+        size--;
+        return command;
+    }
+
+    /**
+     * Drops the buffered commands but keeps the held keys, for while the game is paused.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Forgets every key, for when the window loses the focus and the key releases may never arrive.
+     */
+    public void releaseAll() {
+        clear();
+        Arrays.fill(pressed, false);
+        held = 0;
+    }
+
+    /**
+     * @return {@code true} if escape was pressed since the last call.
+     */
+    public boolean pollPause() {
+        boolean requested = pauseRequested;
+        pauseRequested = false;
+        return requested;
+    }
+
+    /**
+     * @return {@code true} if F3 was pressed since the last call.
+     */
+    public boolean pollRenderStats() {
+        boolean requested = renderStatsRequested;
+        renderStatsRequested = false;
+        return requested;
+    }
+
+    private boolean setPressed(int keycode, boolean down) {
+        int key = indexOf(keycode);
+        if (key < 0) {
+            return false;
+        }
+        pressed[key] = down;
+        int command = 0;
+        for (int i = 0; i < KEYS.length; i++) {
+            if (pressed[i]) {
+                command |= BITS[i];
+            }
+        }
+        if (command != held) {
+            held = command;
+            push(command);
+        }
+        return true;
+    }
+
+    /**
+     * Appends a command. If the buffer is full the oldest command is dropped, a step runs every few milliseconds
+     * so that only happens when no steps run.
+     */
+    private void push(int command) {
+        if (size == CAPACITY) {
+            head = (head + 1) & (CAPACITY - 1);
+            size--;
+        }
+        commands[(head + size) & (CAPACITY - 1)] = command;
+        size++;
+    }
+
+    private static int indexOf(int keycode) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i] == keycode) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,545 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The EnemySystem class stores all enemies of a level in parallel primitive arrays, one entry per enemy,
+ * and advances them in a single loop per simulation step. An enemy is only an index into these arrays.
+ * <p>
+ * Every enemy walks {@link #STEP_DISTANCE} world units in one direction and then picks another one at random;
+ * it also picks another direction whenever a wall, the entry, an exit or a trap is in its way.
+ * The enemies are filed in an {@link IntSpatialHash} with one cell per tile, which is kept up to date while they move.
+ * <p>
+ * An enemy looks up to one tile ahead by sweeping its box through the {@link TileCollider} and remembers the coordinate
+ * up to which the way is free; it only looks again once it got there, so most steps read no tiles at all.
+ * When it reaches a blocking tile it stops flush against it and turns. The remembered coordinates are forgotten whenever
+ * the tiles change.
+ * <p>
+ * When a {@link FlowField} is set, enemies inside it chase the hero: whenever an enemy reaches the corner of a tile
+ * it takes the direction the field stores for that tile, so chasing costs one lookup per enemy and tile.
+ * <p>
+ * An enemy's step only reads the tiles and its own entries, and every enemy draws its random directions from its own
+ * generator, seeded from the level seed and its index. So the enemies can be advanced in any order, or at the same time:
+ * in parallel mode the enemies are split into ranges that are advanced on the common {@link ForkJoinPool}.
+ * Enemies are spawned in the order of the map, so a range of indices is a band of rows of the map.
+ * The spatial hash is updated afterwards on the calling thread, the result is the same as in a sequential update.
+ * <p>
+ * Only the enemies within the active radius around the focus, the hero, are simulated in every step; the others are
+ * dormant and cost nothing. The active enemies are found through a second spatial hash with regions of
+ * {@link #REGION_SIZE} tiles, so a step costs as much as the active area holds, however many enemies the level has;
+ * the active area is rounded out to whole regions. With {@link #ALL_ACTIVE} the region hash is not kept at all.
+ * When a dormant enemy comes into the active area again, it makes up for the time it slept in a few coarse steps of
+ * {@link #COARSE_STEPS} simulation steps each, without animating. Beyond {@link #MAX_CATCH_UP} steps the sleep is cut short: by then its wandering has long forgotten
+ * where it started. Which enemies are active only depends on the simulated world, so this is as deterministic as the
+ * full update.
+ */
+public class EnemySystem {
+    public static final byte UP = 0;
+    public static final byte RIGHT = 1;
+    public static final byte DOWN = 2;
+    public static final byte LEFT = 3;
+    public static final int SIZE = 60; // Width and height of an enemy in world units
+    private static final float SPEED = 100f;
+    private static final float STEP_DISTANCE = 300;
+    private static final int PARALLEL_RANGE = 4096; // Enemies per task, smaller ranges cost more than they gain
+    private static final float ALIGN_TOLERANCE = 2f; // How far off the tile raster an enemy may be to follow the field
+    private static final float LOOK_AHEAD = TileGrid.TILE_SIZE;
+    static final float INSET = 10; // The sides of an enemy may brush past corners by this much
+    public static final int ALL_ACTIVE = 0; // Active radius that simulates every enemy in every step
+    private static final int DEFAULT_ACTIVE_RADIUS = 16; // Tiles, beyond the chase radius and the edge of the screen
+    private static final int REGION_SIZE = 8; // Tiles per side of a cell of the hash the active area is looked up in
+    private static final int COARSE_STEPS = 30; // Simulation steps a waking enemy makes up for at once
+    private static final int MAX_CATCH_UP = 30 * 120; // Simulation steps a waking enemy makes up for at most
+
+    private float[] x = new float[16];
+    private float[] y = new float[16];
+    private float[] stepX = new float[16]; // Position at the start of the last simulation step, for interpolation
+    private float[] stepY = new float[16];
+    private float[] stepsRemaining = new float[16];
+    private float[] animationTime = new float[16];
+    private float[] reach = new float[16]; // Coordinate on the walking axis up to which the way is known to be free
+    private byte[] direction = new byte[16];
+    private long[] random = new long[16]; // State of each enemy's random generator
+    private int[] lastActive = new int[16]; // The last update in which the enemy was simulated
+    private int count;
+    private int updates; // Number of updates since the enemies were cleared
+    private int activeRadius = DEFAULT_ACTIVE_RADIUS;
+    private float focusX;
+    private float focusY;
+    private final IntArray active = new IntArray(false, 256);
+    private long seed = MathUtils.random.nextLong();
+    private boolean parallel;
+    private FlowField flowField;
+    private TileGrid checkedGrid; // The grid and its version the reaches were computed for
+    private int checkedVersion;
+    private final IntSpatialHash index = new IntSpatialHash(TileGrid.TILE_SIZE, SIZE);
+    private final IntSpatialHash regions = new IntSpatialHash(REGION_SIZE * TileGrid.TILE_SIZE, SIZE);
+    private Animation<TextureRegion>[] walkAnimations; // Indexed by direction, loaded when first drawn
+    private Animation<TextureRegion> idleAnimation;
+
+    /**
+     * Adds an enemy at the given position, walking in a random direction.
+     *
+     * @param enemyX The x-coordinate of the enemy in world units.
+     * @param enemyY The y-coordinate of the enemy in world units.
+     * @return The index of the new enemy.
+     */
+    public int spawn(float enemyX, float enemyY) {
+        if (count == x.length) {
+            int capacity = count * 2;
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            stepX = Arrays.copyOf(stepX, capacity);
+            stepY = Arrays.copyOf(stepY, capacity);
+            stepsRemaining = Arrays.copyOf(stepsRemaining, capacity);
+            animationTime = Arrays.copyOf(animationTime, capacity);
+            reach = Arrays.copyOf(reach, capacity);
+            direction = Arrays.copyOf(direction, capacity);
+            random = Arrays.copyOf(random, capacity);
+            lastActive = Arrays.copyOf(lastActive, capacity);
+        }
+        int i = count++;
+        x[i] = stepX[i] = enemyX;
+        y[i] = stepY[i] = enemyY;
+        stepsRemaining[i] = STEP_DISTANCE;
+        animationTime[i] = 0;
+        random[i] = mix(seed + i * 0x9E3779B97F4A7C15L);
+        direction[i] = (byte) nextInt(i, 4);
+        lastActive[i] = updates; // Dormant until the active area reaches it, but without time to make up for
+        forgetReach(i);
+        index.add(i, enemyX, enemyY);
+        if (activeRadius != ALL_ACTIVE) {
+            regions.add(i, enemyX, enemyY);
+        }
+        return i;
+    }
+
+    /**
+     * Removes every enemy. The arrays are kept for the next level.
+     */
+    public void clear() {
+        count = 0;
+        updates = 0;
+        active.clear();
+        index.clear();
+        regions.clear();
+    }
+
+    /**
+     * Sets the seed the random generators of the enemies spawned from now on are derived from.
+     * The same seed and the same spawns give the same enemy movement.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Turns the parallel update on or off. The enemies move the same either way.
+     *
+     * @param parallel {@code true} to advance large numbers of enemies on all cores.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets how far around the focus enemies are simulated in every step. The region hash is only kept while there is
+     * an active area, so it is refilled when one is set again.
+     *
+     * @param activeRadius The distance in tiles, or {@link #ALL_ACTIVE} to simulate every enemy in every step.
+     */
+    public void setActiveRadius(int activeRadius) {
+        if (activeRadius != ALL_ACTIVE && this.activeRadius == ALL_ACTIVE) {
+            regions.clear();
+            for (int i = 0; i < count; i++) {
+                regions.add(i, x[i], y[i]);
+                lastActive[i] = updates; // They were all simulated so far
+            }
+        }
+        this.activeRadius = activeRadius;
+    }
+
+    public int getActiveRadius() {
+        return activeRadius;
+    }
+
+    /**
+     * Sets the centre of the active area, the enemies around it are simulated in the next update.
+     *
+     * @param focusX The x-coordinate in world units.
+     * @param focusY The y-coordinate in world units.
+     */
+    public void setFocus(float focusX, float focusY) {
+        this.focusX = focusX;
+        this.focusY = focusY;
+    }
+
+    /**
+     * Sets the field the enemies chase the hero with.
+     *
+     * @param flowField The field, or {@code null} to let every enemy wander.
+     */
+    public void setFlowField(FlowField flowField) {
+        this.flowField = flowField;
+    }
+
+    /**
+     * Advances the active enemies by one simulation step, see {@link #setActiveRadius(int)}. Enemies in chunks that
+     * are not loaded are not simulated. The position before the step is kept for drawing.
+     * All steps are expected to have the same length, dormant enemies make up for missed steps with it.
+     *
+     * @param delta The length of the step in seconds.
+     * @param grid  The tiles of the maze.
+     */
+    public void update(float delta, TileGrid grid) {
+        updates++;
+        int[] ids = null; // The indices of the active enemies, null if all are active
+        int size = count;
+        if (activeRadius != ALL_ACTIVE) {
+            wake(delta, grid);
+            ids = active.items;
+            size = active.size;
+        }
+        if (grid != checkedGrid || grid.getVersion() != checkedVersion) {
+            // Dormant enemies forget their reach when they wake
+            for (int n = 0; n < size; n++) {
+                forgetReach(ids == null ? n : ids[n]);
+            }
+            checkedGrid = grid;
+            checkedVersion = grid.getVersion();
+        }
+        if (parallel && size > PARALLEL_RANGE) {
+            ForkJoinPool.commonPool().invoke(new UpdateTask(ids, 0, size, delta, grid));
+        } else {
+            advance(ids, 0, size, delta, grid);
+        }
+        if (ids == null) {
+            for (int i = 0; i < size; i++) {
+                index.move(i, stepX[i], stepY[i], x[i], y[i]);
+            }
+        } else {
+            for (int n = 0; n < size; n++) {
+                int i = ids[n];
+                index.move(i, stepX[i], stepY[i], x[i], y[i]);
+                regions.move(i, stepX[i], stepY[i], x[i], y[i]);
+            }
+        }
+    }
+
+    /**
+     * Collects the enemies in the active area and lets the ones that were dormant make up for the steps they missed.
+     */
+    private void wake(float delta, TileGrid grid) {
+        float half = activeRadius * TileGrid.TILE_SIZE;
+        active.clear();
+        regions.query(focusX - half, focusY - half, 2 * half, 2 * half, active);
+        int[] ids = active.items;
+        for (int n = 0; n < active.size; n++) {
+            int i = ids[n];
+            int missed = updates - 1 - lastActive[i];
+            if (missed > 0) {
+                catchUp(i, Math.min(missed, MAX_CATCH_UP), delta, grid);
+            }
+            lastActive[i] = updates;
+        }
+    }
+
+    /**
+     * Advances a waking enemy by the given number of steps, {@link #COARSE_STEPS} at a time and without animating it.
+     * It does not chase, the active area reaches further than the flow field.
+     */
+    private void catchUp(int i, int steps, float delta, TileGrid grid) {
+        float oldX = x[i];
+        float oldY = y[i];
+        float time = animationTime[i];
+        forgetReach(i); // The tiles may have changed while it slept
+        for (; steps > 0; steps -= COARSE_STEPS) {
+            advance(i, Math.min(steps, COARSE_STEPS) * delta, grid, null);
+        }
+        animationTime[i] = time;
+        stepX[i] = x[i];
+        stepY[i] = y[i];
+        index.move(i, oldX, oldY, x[i], y[i]);
+        regions.move(i, oldX, oldY, x[i], y[i]);
+    }
+
+    /**
+     * Advances a range of enemies. Only touches the entries of these enemies, so ranges can run at the same time.
+     *
+     * @param ids The indices of the enemies the range is taken from, or {@code null} for the indices themselves.
+     */
+    private void advance(int[] ids, int from, int to, float delta, TileGrid grid) {
+        FlowField field = flowField;
+        if (ids == null) {
+            for (int i = from; i < to; i++) {
+                advance(i, delta, grid, field);
+            }
+        } else {
+            for (int n = from; n < to; n++) {
+                advance(ids[n], delta, grid, field);
+            }
+        }
+    }
+
+    /**
+     * Advances one enemy by a step of the given length.
+     */
+    private void advance(int i, float delta, TileGrid grid, FlowField field) {
+        stepX[i] = x[i];
+        stepY[i] = y[i];
+        float distance = SPEED * delta;
+        if (field != null && field.covers(x[i], y[i])) {
+            chase(i, field, distance);
+        }
+        float oldX = x[i];
+        float oldY = y[i];
+        boolean vertical = direction[i] == UP || direction[i] == DOWN;
+        boolean forward = direction[i] == UP || direction[i] == RIGHT;
+        float position = vertical ? oldY : oldX;
+        float free = forward ? reach[i] - position : position - reach[i];
+        if (free < distance) {
+            free = Math.max(0, look(grid, direction[i], oldX, oldY));
+            reach[i] = forward ? position + free : position - free;
+        }
+        float moved = Math.min(free, distance);
+        // Land exactly on the reach, adding up the steps would drift past it
+        float next = moved == free ? reach[i] : forward ? position + moved : position - moved;
+        if (vertical) {
+            y[i] = next;
+        } else {
+            x[i] = next;
+        }
+        if (moved > 0) {
+            animationTime[i] += delta;
+        }
+        if (moved < distance) {
+            turn(i);
+        }
+        stepsRemaining[i] -= distance;
+        if (stepsRemaining[i] <= 0) {
+            stepsRemaining[i] = STEP_DISTANCE;
+            turn(i);
+        }
+    }
+
+    /**
+     * Advances a range of enemies, split in halves until the ranges are small enough.
+     */
+    private final class UpdateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] ids;
+        private final int from;
+        private final int to;
+        private final float delta;
+        private final TileGrid grid;
+
+        UpdateTask(int[] ids, int from, int to, float delta, TileGrid grid) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+            this.delta = delta;
+            this.grid = grid;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_RANGE) {
+                advance(ids, from, to, delta, grid);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new UpdateTask(ids, from, middle, delta, grid), new UpdateTask(ids, middle, to, delta, grid));
+            }
+        }
+    }
+
+    /**
+     * Sweeps an enemy's box ahead of it. Across its way the box is narrower by {@link #INSET} on each side.
+     * The sweep starts with the front edge pulled back to the tile border behind it: after turning in the middle of a
+     * tile the front may already poke into a blocking tile, which the collider would ignore.
+     *
+     * @return How far the enemy can walk before it touches a blocking tile, at most {@link #LOOK_AHEAD}.
+     */
+    private static float look(TileGrid grid, byte direction, float x, float y) {
+        int solids = TileCollider.ENEMY_SOLIDS;
+        float narrow = SIZE - 2 * INSET;
+        float back;
+        return switch (direction) {
+            case UP -> {
+                back = y - (MathUtils.floor((y + SIZE) / TileGrid.TILE_SIZE) * TileGrid.TILE_SIZE - SIZE);
+                yield TileCollider.sweepY(grid, solids, x + INSET, y - back, narrow, SIZE, LOOK_AHEAD + back) - back;
+            }
+            case RIGHT -> {
+                back = x - (MathUtils.floor((x + SIZE) / TileGrid.TILE_SIZE) * TileGrid.TILE_SIZE - SIZE);
+                yield TileCollider.sweepX(grid, solids, x - back, y + INSET, SIZE, narrow, LOOK_AHEAD + back) - back;
+            }
+            case DOWN -> {
+                back = MathUtils.ceil(y / TileGrid.TILE_SIZE) * TileGrid.TILE_SIZE - y;
+                yield -TileCollider.sweepY(grid, solids, x + INSET, y + back, narrow, SIZE, -LOOK_AHEAD - back) - back;
+            }
+            default -> {
+                back = MathUtils.ceil(x / TileGrid.TILE_SIZE) * TileGrid.TILE_SIZE - x;
+                yield -TileCollider.sweepX(grid, solids, x + back, y + INSET, SIZE, narrow, -LOOK_AHEAD - back) - back;
+            }
+        };
+    }
+
+    /**
+     * Turns an enemy into the direction of the flow field when it passes the corner of a tile inside the field.
+     * The enemy is put exactly onto the corner, so it stays on the tile raster while it follows the field.
+     */
+    private void chase(int i, FlowField field, float distance) {
+        int tileX = MathUtils.round(x[i] / TileGrid.TILE_SIZE);
+        int tileY = MathUtils.round(y[i] / TileGrid.TILE_SIZE);
+        float offsetX = x[i] - tileX * TileGrid.TILE_SIZE;
+        float offsetY = y[i] - tileY * TileGrid.TILE_SIZE;
+        boolean vertical = direction[i] == UP || direction[i] == DOWN;
+        float along = vertical ? offsetY : offsetX;
+        float across = vertical ? offsetX : offsetY;
+        // Only one step of the walk lands this close to the corner, so the field is read once per tile
+        if (along < -distance / 2 || along >= distance / 2 || Math.abs(across) > ALIGN_TOLERANCE) {
+            return;
+        }
+        byte next = field.getDirection(tileX, tileY);
+        if (next == FlowField.NONE) {
+            return;
+        }
+        stepsRemaining[i] = STEP_DISTANCE; // Chasing enemies do not turn at random
+        if (next != direction[i]) {
+            x[i] = tileX * TileGrid.TILE_SIZE;
+            y[i] = tileY * TileGrid.TILE_SIZE;
+            direction[i] = next;
+            forgetReach(i);
+        }
+    }
+
+    static boolean isWalkable(int tile) {
+        return tile < 0 || tile >= 32 || (TileCollider.ENEMY_SOLIDS >>> tile & 1) == 0;
+    }
+
+    /**
+     * Lets an enemy walk in a random direction other than its current one.
+     */
+    private void turn(int i) {
+        int next = nextInt(i, 3);
+        direction[i] = (byte) (next >= direction[i] ? next + 1 : next);
+        forgetReach(i);
+    }
+
+    /**
+     * Makes an enemy look at the tiles ahead again in its next step.
+     */
+    private void forgetReach(int i) {
+        reach[i] = direction[i] == UP || direction[i] == DOWN ? y[i] : x[i];
+    }
+
+    /**
+     * Draws the next number of an enemy's xorshift generator.
+     *
+     * @return A number between 0 (inclusive) and the bound (exclusive).
+     */
+    private int nextInt(int i, int bound) {
+        long state = random[i];
+        state ^= state << 13;
+        state ^= state >>> 7;
+        state ^= state << 17;
+        random[i] = state;
+        return (int) (((state >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Scrambles a seed with the SplitMix64 finalizer, so neighbouring seeds give unrelated generators.
+     */
+    private static long mix(long seed) {
+        long z = seed;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return z == 0 ? 1 : z; // Xorshift never leaves 0
+    }
+
+    /**
+     * Collects the enemies that may overlap the given area.
+     *
+     * @param area The area.
+     * @param out  The array the indices are added to, it is not cleared.
+     */
+    public void query(Rectangle area, IntArray out) {
+        index.query(area.x, area.y, area.width, area.height, out);
+    }
+
+    /**
+     * @param i    The index of an enemy.
+     * @param area The area to test.
+     * @return {@code true} if the enemy overlaps the area.
+     */
+    public boolean overlaps(int i, Rectangle area) {
+        return x[i] < area.x + area.width && x[i] + SIZE > area.x && y[i] < area.y + area.height && y[i] + SIZE > area.y;
+    }
+
+    /**
+     * Submits the given enemies to a render layer, drawn between their last two simulation steps.
+     *
+     * @param queue   The SpriteQueue of the render layer.
+     * @param visible The indices of the enemies to draw.
+     * @param alpha   How far the render time is into the next simulation step, between 0 and 1.
+     * @param paused  {@code true} while the game is paused, the enemies are drawn standing then.
+     */
+    public void draw(SpriteQueue queue, IntArray visible, float alpha, boolean paused) {
+        if (walkAnimations == null) {
+            @SuppressWarnings("unchecked") // A generic array can only be created through a wildcard one
+            Animation<TextureRegion>[] animations = (Animation<TextureRegion>[]) new Animation<?>[4];
+            walkAnimations = animations;
+            walkAnimations[UP] = AnimationRegistry.getAnimation("mobs.png", 48, 112, 16, 16, 3, 0.1f, false);
+            walkAnimations[RIGHT] = AnimationRegistry.getAnimation("mobs.png", 48, 96, 16, 16, 3, 0.1f, false);
+            walkAnimations[DOWN] = AnimationRegistry.getAnimation("mobs.png", 48, 64, 16, 16, 3, 0.1f, false);
+            walkAnimations[LEFT] = AnimationRegistry.getAnimation("mobs.png", 48, 80, 16, 16, 3, 0.1f, false);
+            idleAnimation = AnimationRegistry.getAnimation("mobs.png", 64, 64, 16, 16, 1, 0.1f, false);
+        }
+        for (int n = 0; n < visible.size; n++) {
+            int i = visible.get(n);
+            Animation<TextureRegion> animation = paused ? idleAnimation : walkAnimations[direction[i]];
+            // A dormant enemy stands where its last step ended
+            float t = activeRadius == ALL_ACTIVE || lastActive[i] == updates ? alpha : 1;
+            queue.draw(animation.getKeyFrame(animationTime[i], true),
+                    stepX[i] + (x[i] - stepX[i]) * t,
+                    stepY[i] + (y[i] - stepY[i]) * t, SIZE, SIZE);
+        }
+    }
+
+    public float getX(int i) {
+        return x[i];
+    }
+
+    public float getY(int i) {
+        return y[i];
+    }
+
+    public byte getDirection(int i) {
+        return direction[i];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return The number of enemies simulated in the last update.
+     */
+    public int activeCount() {
+        return activeRadius == ALL_ACTIVE ? count : active.size;
+    }
+}
@@ -1,6 +1,7 @@
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import de.tum.cit.fop.maze.GameObject;
 
@@ -20,27 +21,42 @@ public class Entry extends GameObject {
      */
     public Entry(float x,float y) {
         super(x,y,60,60);
-        this.animation = loadVerticalAnimation("things.png",0,0,16,16,4,0.25f);
         this.open=true;
+        this.mazeLeaver = new Rectangle(x,y,5,60);
+    }
+
+    /**
+     * Moves the entry together with the strip that keeps the hero from leaving the maze through it.
+     */
+    @Override
+    public void setPosition(float x, float y) {
+        super.setPosition(x, y);
+        mazeLeaver.setPosition(x, y);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        open = true;
     }
 
     /**
      * It draws the entry
-     * @param spriteBatch The SpriteBatch used for rendering graphics.
+     * @param queue The SpriteQueue of the render layer the object is drawn on.
      * @param open It is a boolean method used in the if statement.
      */
     @Override
-    public void draw(SpriteBatch spriteBatch,boolean open) {
+    public void draw(SpriteQueue queue,boolean open) {
         if (open){
-            spriteBatch.draw(
-                    animation.getKeyFrame(animationTime, true),
+            queue.draw(
+                    getAnimation().getKeyFrame(animationTime, true),
                     x,
                     y,
                     rect.width,
                     rect.height
             );
             setOpen(false);
-        }else spriteBatch.draw(animation.getKeyFrames()[0],x,y,rect.width,rect.height);
+        }else queue.draw(getAnimation().getKeyFrames()[0],x,y,rect.width,rect.height);
     }
 
     public boolean isOpen() {
@@ -58,4 +74,9 @@ public void setMazeLeaver(Rectangle mazeLeaver) {
     public Rectangle getMazeLeaver() {
         return mazeLeaver;
     }
+
+    @Override
+    protected Animation<TextureRegion> loadAnimation() {
+        return loadVerticalAnimation("things.png",0,0,16,16,4,0.25f);
+    }
 }
@@ -1,8 +1,7 @@
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import java.util.ArrayList;
-import java.util.List;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 /**
  * The Exit class represents an exit object in the game, which can be opened or closed.
@@ -10,7 +9,6 @@
  */
 public class Exit extends GameObject{
     private boolean open;
-    private static final List<Exit> exitList=new ArrayList<>();
 
     /**
      * Constructs an Exit object with the specified position.
@@ -20,37 +18,43 @@ public class Exit extends GameObject{
      */
     public Exit(float x,float y) {
         super(x,y,60,60);
-        this.animation = loadVerticalAnimation("things.png",48,0,16,16,4,0.25f);
         this.open=false;
 
     }
 
-    public static List<Exit> getExitList() {
-        return exitList;
-    }
-
     /**
      * Draws the exit.
-     * @param spriteBatch The SpriteBatch used for rendering graphics.
+     * @param queue The SpriteQueue of the render layer the object is drawn on.
      * @param open It is a boolean method used in the if statement.
      */
     @Override
-    public void draw(SpriteBatch spriteBatch,boolean open) {
+    public void draw(SpriteQueue queue,boolean open) {
         if (open){
-            spriteBatch.draw(
-                    animation.getKeyFrame(animationTime, true),
+            queue.draw(
+                    getAnimation().getKeyFrame(animationTime, true),
                     x,
                     y,
                     rect.width,
                     rect.height
             );
             setOpen(false);
-        }else spriteBatch.draw(animation.getKeyFrames()[0],x,y,rect.width,rect.height);
+        }else queue.draw(getAnimation().getKeyFrames()[0],x,y,rect.width,rect.height);
+    }
+    @Override
+    public void reset() {
+        super.reset();
+        open = false;
     }
+
     public boolean isOpen() {
         return open;
     }
     public void setOpen(boolean open) {
         this.open = open;
     }
+
+    @Override
+    protected Animation<TextureRegion> loadAnimation() {
+        return loadVerticalAnimation("things.png",48,0,16,16,4,0.25f);
+    }
 }
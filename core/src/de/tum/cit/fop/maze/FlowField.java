@@ -0,0 +1,167 @@
+package de.tum.cit.fop.maze;
+
+import java.util.Arrays;
+
+/**
+ * The FlowField class holds the walking distance from every tile around the hero to the hero's tile, together with the
+ * direction of the first step of a shortest way there. It is computed once by a breadth-first search and shared by all
+ * enemies, which only have to look up the direction of the tile they are on to chase the hero.
+ * <p>
+ * The field only covers a square of tiles within {@link #getRadius()} tiles of the hero, so building it costs the same
+ * however large the map is and however many enemies there are. It is only rebuilt when the hero enters another tile or
+ * the tiles change. Tiles that block enemies also block the search, enemies outside the field keep wandering.
+ */
+public class FlowField {
+    public static final byte NONE = -1; // Direction of tiles that are outside the field, unreachable or the target
+
+    private final int radius;
+    private final int side;
+    private final short[] distances;
+    private final byte[] directions;
+    private final int[] queue;
+    private int originX; // Tile coordinates of the lower left corner of the field
+    private int originY;
+    private int targetX;
+    private int targetY;
+    private float minWorldX; // World area in which the nearest tile corner lies inside the field
+    private float minWorldY;
+    private float maxWorldX;
+    private float maxWorldY;
+    private TileGrid builtGrid;
+    private int builtVersion;
+    private boolean built;
+
+    /**
+     * Constructs an empty FlowField.
+     *
+     * @param radius The number of tiles the field reaches from the hero in every direction.
+     */
+    public FlowField(int radius) {
+        this.radius = radius;
+        this.side = 2 * radius + 1;
+        this.distances = new short[side * side];
+        this.directions = new byte[side * side];
+        this.queue = new int[side * side];
+    }
+
+    /**
+     * Moves the target of the field, rebuilding it if the target tile or the tiles of the grid changed.
+     *
+     * @param tileX The x-coordinate of the target tile.
+     * @param tileY The y-coordinate of the target tile.
+     * @param grid  The tiles of the maze.
+     * @return {@code true} if the field was rebuilt.
+     */
+    public boolean update(int tileX, int tileY, TileGrid grid) {
+        if (built && tileX == targetX && tileY == targetY && grid == builtGrid && grid.getVersion() == builtVersion) {
+            return false;
+        }
+        targetX = tileX;
+        targetY = tileY;
+        originX = tileX - radius;
+        originY = tileY - radius;
+        minWorldX = (originX - 0.5f) * TileGrid.TILE_SIZE;
+        minWorldY = (originY - 0.5f) * TileGrid.TILE_SIZE;
+        maxWorldX = (originX + side - 0.5f) * TileGrid.TILE_SIZE;
+        maxWorldY = (originY + side - 0.5f) * TileGrid.TILE_SIZE;
+        builtGrid = grid;
+        builtVersion = grid.getVersion();
+        built = true;
+        build(grid);
+        return true;
+    }
+
+    /**
+     * Runs the breadth-first search from the target tile. Every tile that is reached points back at the tile it was
+     * reached from, which is one step closer to the target.
+     */
+    private void build(TileGrid grid) {
+        Arrays.fill(distances, (short) -1);
+        Arrays.fill(directions, NONE);
+        int start = radius * side + radius;
+        distances[start] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            int column = cell % side;
+            int row = cell / side;
+            short next = (short) (distances[cell] + 1);
+            // The neighbour walks in the opposite direction to get here
+            if (row + 1 < side) {
+                tail = visit(grid, cell + side, column, row + 1, next, EnemySystem.DOWN, tail);
+            }
+            if (column + 1 < side) {
+                tail = visit(grid, cell + 1, column + 1, row, next, EnemySystem.LEFT, tail);
+            }
+            if (row > 0) {
+                tail = visit(grid, cell - side, column, row - 1, next, EnemySystem.UP, tail);
+            }
+            if (column > 0) {
+                tail = visit(grid, cell - 1, column - 1, row, next, EnemySystem.RIGHT, tail);
+            }
+        }
+    }
+
+    private int visit(TileGrid grid, int cell, int column, int row, short distance, byte direction, int tail) {
+        if (distances[cell] >= 0 || !EnemySystem.isWalkable(grid.get(originX + column, originY + row))) {
+            return tail;
+        }
+        distances[cell] = distance;
+        directions[cell] = direction;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+    /**
+     * Tells cheaply whether a position can be in the field at all, before its tile is computed.
+     *
+     * @param worldX The x-coordinate in world units.
+     * @param worldY The y-coordinate in world units.
+     * @return {@code true} if the tile corner nearest to the position is inside the field.
+     */
+    public boolean covers(float worldX, float worldY) {
+        return built && worldX >= minWorldX && worldX < maxWorldX && worldY >= minWorldY && worldY < maxWorldY;
+    }
+
+    /**
+     * @param tileX The x-coordinate of a tile.
+     * @param tileY The y-coordinate of a tile.
+     * @return The direction of the first step towards the target, or {@link #NONE}.
+     */
+    public byte getDirection(int tileX, int tileY) {
+        int column = tileX - originX;
+        int row = tileY - originY;
+        if (!built || column < 0 || row < 0 || column >= side || row >= side) {
+            return NONE;
+        }
+        return directions[row * side + column];
+    }
+
+    /**
+     * @param tileX The x-coordinate of a tile.
+     * @param tileY The y-coordinate of a tile.
+     * @return The number of steps from the tile to the target, or -1 if the tile is outside the field or unreachable.
+     */
+    public int getDistance(int tileX, int tileY) {
+        int column = tileX - originX;
+        int row = tileY - originY;
+        if (!built || column < 0 || row < 0 || column >= side || row >= side) {
+            return -1;
+        }
+        return distances[row * side + column];
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getTargetX() {
+        return targetX;
+    }
+
+    public int getTargetY() {
+        return targetY;
+    }
+}
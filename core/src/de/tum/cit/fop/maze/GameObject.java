@@ -1,23 +1,22 @@
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
 
 /**
  * This class is responsible for drawing the game objects like wall, key, etc. according to their animations.
+ * The animations are only loaded from the sprite atlas when an object is drawn for the first time, so objects can be
+ * created and simulated without OpenGL, as the headless runner does.
+ * Objects of a level are taken from pools of the {@link Level} and reset when they are returned.
  */
-public class GameObject {
+public class GameObject implements Pool.Poolable {
     protected float x;
     protected float y;
-    protected Animation<TextureRegion> animation;
+    protected Animation<TextureRegion> animation; // Loaded on first use, see getAnimation()
     protected Rectangle rect;
     protected float animationTime;
-    protected Texture texture;
 
     public GameObject(float x, float y,int rectWidth,int rectHeight) {
         this.x = x;
@@ -26,6 +25,7 @@ public GameObject(float x, float y,int rectWidth,int rectHeight) {
     }
     /**
      * Loads animation if the textures for a significant object is lined up in horizontal way like enemy, hero, etc.
+     * The animation comes from the shared sprite atlas, objects of the same type get the same instance.
      * @param path        The file path to the sprite sheet image.
      * @param imageX      The starting x-coordinate of the first frame in the sprite sheet.
      * @param imageY      The y-coordinate of the frames in the sprite sheet.
@@ -36,20 +36,12 @@ public GameObject(float x, float y,int rectWidth,int rectHeight) {
      * @return A horizontal animation created from the specified sprite sheet parameters.
      */
     public Animation<TextureRegion> loadHorizontalAnimation(String path, int imageX, int imageY, int frameWidth, int frameHeight, int frames, float duration) {
-        this.texture = new Texture(Gdx.files.internal(path));
-        // libGDX internal Array instead of ArrayList because of performance
-        Array<TextureRegion> Frames = new Array<>(TextureRegion.class);
-
-        // Add all frames to the animation
-        for (int col = 0; col < frames; col++) {
-            Frames.add(new TextureRegion(texture, col * frameWidth + imageX, imageY, frameWidth, frameHeight));
-        }
-
-        return new Animation<>(duration, Frames);
+        return AnimationRegistry.getAnimation(path, imageX, imageY, frameWidth, frameHeight, frames, duration, false);
     }
 
     /**
      * Loads animation if the textures for a significant object is lined up in vertical way like enemy, hero, etc.
+     * The animation comes from the shared sprite atlas, objects of the same type get the same instance.
      * @param path        The file path to the sprite sheet image.
      * @param imageX      The starting x-coordinate of the first frame in the sprite sheet.
      * @param imageY      The y-coordinate of the frames in the sprite sheet.
@@ -60,16 +52,47 @@ public Animation<TextureRegion> loadHorizontalAnimation(String path, int imageX,
      * @return A vertical animation created from the specified sprite sheet parameters.
      */
     public Animation<TextureRegion> loadVerticalAnimation(String path, int imageX, int imageY, int frameWidth, int frameHeight, int frames, float duration) {
-        this.texture = new Texture(Gdx.files.internal(path));
-        // libGDX internal Array instead of ArrayList because of performance
-        Array<TextureRegion> Frames = new Array<>(TextureRegion.class);
+        return AnimationRegistry.getAnimation(path, imageX, imageY, frameWidth, frameHeight, frames, duration, true);
+    }
 
-        // Add all frames to the animation
-        for (int col = 0; col < frames; col++) {
-            Frames.add(new TextureRegion(texture, imageX, col * frameHeight + imageY, frameWidth, frameHeight));
+    /**
+     * Loads the animation of the object. Subclasses override this instead of loading animations in their constructor.
+     *
+     * @return The animation, or {@code null} if the object has none.
+     */
+    protected Animation<TextureRegion> loadAnimation() {
+        return null;
+    }
+
+    /**
+     * @return The animation of the object, loaded from the sprite atlas on the first call.
+     */
+    public Animation<TextureRegion> getAnimation() {
+        if (animation == null) {
+            animation = loadAnimation();
         }
+        return animation;
+    }
 
-        return new Animation<>(duration, Frames);
+    /**
+     * Moves the object and its rectangle, used when an object from a pool is placed in a level.
+     *
+     * @param x The new x-coordinate.
+     * @param y The new y-coordinate.
+     */
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+        rect.setPosition(x, y);
+    }
+
+    /**
+     * Resets the state of the object when it is returned to its pool. The animation is kept, it is the same for
+     * every object of a type.
+     */
+    @Override
+    public void reset() {
+        animationTime = 0;
     }
 
     /**
@@ -78,20 +101,18 @@ public Animation<TextureRegion> loadVerticalAnimation(String path, int imageX, i
      * @param delta The time in seconds since the last update.
      */
     public void update(float delta) {
-        if (!GameScreen.isResumed()) {
-            animationTime += delta;
-        }
+        animationTime += delta;
     }
 
     /**
      * Draws the game objects
-     * @param spriteBatch The SpriteBatch used for rendering graphics.
+     * @param queue The SpriteQueue of the render layer the object is drawn on.
      * @param toDraw It is a boolean method used in the if statement.
      */
-    public void draw(SpriteBatch spriteBatch,boolean toDraw) {
+    public void draw(SpriteQueue queue,boolean toDraw) {
         if (toDraw){
-            spriteBatch.draw(
-                    animation.getKeyFrame(animationTime, true),
+            queue.draw(
+                    getAnimation().getKeyFrame(animationTime, true),
                     x,
                     y,
                     rect.width,
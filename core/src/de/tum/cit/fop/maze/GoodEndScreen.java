@@ -73,7 +73,7 @@ private void setupTable() {
         goToMenu.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                game.setScreen(new MenuScreen(game)); // Navigate to the menu
+                game.goToMenu(); // Navigate to the menu
                 game.getMusicLoader().stopWinningMusic();
                 if (!game.getMusicLoader().isForbiddenMenu()) {
                     game.getMusicLoader().playMenuMusic();
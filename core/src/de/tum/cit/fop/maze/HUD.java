@@ -1,11 +1,9 @@
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.utils.viewport.Viewport;
@@ -14,44 +12,62 @@
  * The HUD class represents the Heads-Up Display in the MazeRunnerGame.
  */
 public class HUD extends Stage{
+    private static final RenderPipeline.Layer[] LAYERS = RenderPipeline.Layer.values();
+    private static final String[] LAYER_NAMES = new String[LAYERS.length]; // Lower case, for the render stats
+
+    static {
+        for (RenderPipeline.Layer layer : LAYERS) {
+            LAYER_NAMES[layer.ordinal()] = layer.name().toLowerCase();
+        }
+    }
+
     private final Label livesLabel;
     private final Label keyStatusLabel;
-    private final MazeRunnerGame game;
+    private final Languages languages;
     private final Hero hero;
     private final TextureRegion livesTextures;
     private final Label vulnerability;
+    private final Label renderCallsLabel;
+    private final StringBuilder renderStats = new StringBuilder();
+    private final float renderStatsTop;
+    // The states the labels show, their text only changes when these do
+    private boolean keyShown;
+    private boolean shieldShown;
 
     /**
-     * Constructs a HUD with the specified viewport, hero, and MazeRunnerGame.
+     * Constructs a HUD with the specified viewport, batch, hero, languages and font.
      *
-     * @param viewport The viewport to use for the HUD stage.
-     * @param hero     The hero instance of the game.
-     * @param game     The MazeRunnerGame instance.
+     * @param viewport  The viewport to use for the HUD stage.
+     * @param batch     The batch the HUD is drawn with, usually the game's shared one. The HUD does not dispose it.
+     * @param hero      The hero instance of the game.
+     * @param languages The texts of the labels.
+     * @param font      The font of the labels.
      */
-    public HUD(Viewport viewport, Hero hero, MazeRunnerGame game) {
-        super(viewport);
+    public HUD(Viewport viewport, Batch batch, Hero hero, Languages languages, BitmapFont font) {
+        super(viewport, batch);
 
-        // Cache font and texture resources from the game
-        BitmapFont customFont = game.getSkin().getFont("default-font"); // Use a preloaded font
-        Label.LabelStyle labelStyle = new Label.LabelStyle(customFont, Color.WHITE); // Reuse LabelStyle
+        Label.LabelStyle labelStyle = new Label.LabelStyle(font, Color.WHITE); // Reuse LabelStyle
 
         // Create labels
-        livesLabel = createLabel(game.getLanguages().get("lives"), labelStyle, 10, viewport.getWorldHeight() - 50);
-        keyStatusLabel = createLabel(game.getLanguages().get("keystatusnotok"), labelStyle, 10, viewport.getWorldHeight() - 110);
-        vulnerability = createLabel(game.getLanguages().get("shieldno"), labelStyle, 10, viewport.getWorldHeight() - 170);
+        livesLabel = createLabel(languages.get("lives"), labelStyle, 10, viewport.getWorldHeight() - 50);
+        keyStatusLabel = createLabel(languages.get("keystatusnotok"), labelStyle, 10, viewport.getWorldHeight() - 110);
+        vulnerability = createLabel(languages.get("shieldno"), labelStyle, 10, viewport.getWorldHeight() - 170);
+        renderStatsTop = viewport.getWorldHeight() - 190;
+        renderCallsLabel = createLabel("", labelStyle, 10, renderStatsTop);
+        renderCallsLabel.setVisible(false); // Debug overlay, toggled with F3
 
         // Add UI elements to the stage
         addActor(livesLabel);
         addActor(keyStatusLabel);
         addActor(vulnerability);
+        addActor(renderCallsLabel);
 
-        // Assign Hero and Game references
+        // Assign Hero and Languages references
         this.hero = hero;
-        this.game = game;
+        this.languages = languages;
 
-        // Reuse cached texture from the game
-        Texture heartTexture = game.getAssetManager().get("objects.png", Texture.class); // Use preloaded texture
-        this.livesTextures = new TextureRegion(heartTexture, 64, 0, 16, 16);
+        // Heart icon from the shared sprite atlas
+        this.livesTextures = AnimationRegistry.getRegion("objects.png", 64, 0, 16, 16);
     }
 
 
@@ -63,8 +79,9 @@ private Label createLabel(String text, Label.LabelStyle style, float x, float y)
 
     /**
      * Draws the heart icons representing the number of lives the hero has.
+     * @param queue The SpriteQueue of the HUD layer.
      */
-    public void drawLives() {
+    public void drawLives(SpriteQueue queue) {
         // Cache reusable values
         float baseX = livesLabel.getWidth() + 15; // Starting X position
         float baseY = livesLabel.getY() - 10;    // Y position for all icons
@@ -74,7 +91,7 @@ public void drawLives() {
         // Draw lives
         for (int i = 0; i < hero.getLives(); i++) {
             float currentX = baseX + (i * spacing); // Compute X position for the current heart
-            game.getSpriteBatch().draw(livesTextures, currentX, baseY, textureSize, textureSize);
+            queue.draw(livesTextures, currentX, baseY, textureSize, textureSize);
         }
     }
 
@@ -82,8 +99,9 @@ public void drawLives() {
      *  If hero collected the key, it changes the keystatus label to "keystatusok" key in the language bundles.
      */
     public void setKeyStatus() {
-        if (hero.isKeyCollected()) {
-            keyStatusLabel.setText(game.getLanguages().get("keystatusok"));
+        if (hero.isKeyCollected() && !keyShown) {
+            keyStatusLabel.setText(languages.get("keystatusok"));
+            keyShown = true;
         }
     }
 
@@ -92,11 +110,40 @@ public void setKeyStatus() {
      * @param shield It is a boolean which states that shield is enabled or not.
      */
     public void setShield(boolean shield) {
+        if (shield == shieldShown) {
+            return;
+        }
+        shieldShown = shield;
         if (shield){
-            vulnerability.setText(game.getLanguages().get("shieldyes"));
+            vulnerability.setText(languages.get("shieldyes"));
         }else{
-            vulnerability.setText(game.getLanguages().get("shieldno"));
+            vulnerability.setText(languages.get("shieldno"));
+        }
+    }
+
+    /**
+     * Shows or hides the number of draw calls of the game world.
+     */
+    public void toggleRenderCalls() {
+        renderCallsLabel.setVisible(!renderCallsLabel.isVisible());
+    }
+
+    /**
+     * Updates the draw call counter if it is visible.
+     * @param pipeline The pipeline that rendered the last frame of the game world.
+     */
+    public void setRenderStats(RenderPipeline pipeline) {
+        if (!renderCallsLabel.isVisible()) {
+            return;
+        }
+        renderStats.setLength(0);
+        renderStats.append("Render calls: ").append(pipeline.getRenderCalls());
+        for (RenderPipeline.Layer layer : LAYERS) {
+            renderStats.append('\n').append(LAYER_NAMES[layer.ordinal()]).append(": ").append(pipeline.getDrawCount(layer));
         }
+        renderCallsLabel.setText(renderStats);
+        renderCallsLabel.pack();
+        renderCallsLabel.setY(renderStatsTop - renderCallsLabel.getHeight()); // Grow downwards, below the other labels
     }
 
-}
\ No newline at end of file
+}
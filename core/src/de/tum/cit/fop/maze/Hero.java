@@ -1,28 +1,23 @@
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
 
 public class Hero extends Character {
 
-
-    private String direction;
     private int lives = 5;
     private boolean keyCollected;
     private boolean winner;
     private boolean dead;
     private float danceTimer;
-    private final Animation<TextureRegion> danceAnimation;
-    private final Animation<TextureRegion> cryAnimation;
+    private Animation<TextureRegion> danceAnimation;
+    private Animation<TextureRegion> cryAnimation;
     private int score;
     private MazeRunnerGame game;
     private float jumpStartY; // The Y-coordinate where the jump started
@@ -35,6 +30,7 @@ public class Hero extends Character {
     private float gravity = 200;       // Gravity acceleration
     private float groundLevel;         // The Y-coordinate of the ground
     private float maxJumpHeight;       // Maximum height the hero can reach during a jump
+    private final Array<Rectangle> nearbyPlatforms = new Array<>(false, 8);
 
 
     /**
@@ -49,46 +45,22 @@ public Hero(float x, float y, MazeRunnerGame game) {
         this.groundLevel = y;          // Set the initial ground level to the starting Y-coordinate
         this.maxJumpHeight = groundLevel + 150; // Example max jump height
 
-        try {
-            // Load texture using ClassLoader
-            InputStream inputStream = getClass().getClassLoader().getResourceAsStream("character.png");
-            if (inputStream == null) {
-                throw new FileNotFoundException("character.png not found in resources.");
-            }
-
-            // Load texture with AssetManager (preferred for libGDX)
-            Texture texture = game.getAssetManager().get("character.png", Texture.class);
-
-            // Initialize animations
-            this.leftAnimation = createAnimation(texture, 0, 96, 16, 32, 4, 0.1f);
-            this.downAnimation = createAnimation(texture, 0, 0, 16, 32, 4, 0.1f);
-            this.rightAnimation = createAnimation(texture, 0, 32, 16, 32, 4, 0.1f);
-            this.upAnimation = createAnimation(texture, 0, 64, 16, 32, 4, 0.1f);
-            this.animation = createAnimation(texture, 0, 0, 16, 32, 1, 0.1f);
-            this.cryAnimation = createAnimation(texture, 80, 0, 16, 32, 1, 0.25f);
-            this.danceAnimation = createAnimation(texture, 96, 0, 16, 32, 2, 0.25f);
-
-            // Initialize hero state
-            this.keyCollected = false;
-            this.dead = false;
-            this.winner = false;
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to load texture: character.png");
-        }
+        // Initialize hero state
+        this.keyCollected = false;
+        this.dead = false;
+        this.winner = false;
     }
 
-    private Animation<TextureRegion> createAnimation(Texture texture, int startX, int startY, int frameWidth, int frameHeight, int frameCount, float frameDuration) {
-        TextureRegion[] frames = new TextureRegion[frameCount];
-
-        // Create frames by slicing the texture
-        for (int i = 0; i < frameCount; i++) {
-            frames[i] = new TextureRegion(texture, startX + (i * frameWidth), startY, frameWidth, frameHeight);
-        }
-
-        // Create and return an Animation
-        return new Animation<>(frameDuration, frames);
+    /**
+     * Loads the walking animations from the shared sprite atlas, together with the idle animation that is returned.
+     */
+    @Override
+    protected Animation<TextureRegion> loadAnimation() {
+        this.leftAnimation = loadHorizontalAnimation("character.png", 0, 96, 16, 32, 4, 0.1f);
+        this.downAnimation = loadHorizontalAnimation("character.png", 0, 0, 16, 32, 4, 0.1f);
+        this.rightAnimation = loadHorizontalAnimation("character.png", 0, 32, 16, 32, 4, 0.1f);
+        this.upAnimation = loadHorizontalAnimation("character.png", 0, 64, 16, 32, 4, 0.1f);
+        return loadHorizontalAnimation("character.png", 0, 0, 16, 32, 1, 0.1f);
     }
 
     /**
@@ -98,19 +70,18 @@ private Animation<TextureRegion> createAnimation(Texture texture, int startX, in
      */
     @Override
     public void update(float delta) {
-        setDirection(direction);
         sinusInput += delta;
     }
 
     /**
      * Draws the hero.
-     * @param spriteBatch The SpriteBatch used for rendering graphics.
+     * @param queue The SpriteQueue of the render layer the object is drawn on.
      */
-    public void draw(SpriteBatch spriteBatch) {
-        spriteBatch.draw(
+    public void draw(SpriteQueue queue) {
+        queue.draw(
                 super.getCurrentAnimation().getKeyFrame(sinusInput, true),
-                x,
-                y,rect.width,rect.height*2
+                drawX,
+                drawY,rect.width,rect.height*2
         );
     }
 
@@ -153,7 +124,6 @@ public void moveDown(float delta) {
     public void collectKey(Key key) {
         if (this.rect.overlaps(key.getRect())) { // Check collision
             this.keyCollected = true;
-            System.out.println("Key collected!");
             increaseScore(100); // Add 100 points for collecting the key
         }
     }
@@ -164,7 +134,7 @@ public void startJump() {
             jumpStartY = y; // Store the current Y-coordinate
 
             // Restrict max jump height near the top boundary
-            float mazeTopBoundary = game.getMazeLoader().getTop().y;
+            float mazeTopBoundary = game.getLevel().getTop().y;
             if (y + 2 > mazeTopBoundary - 100) {
                 // Restrict to 2 units below the top boundary
                 jumpMaxY = mazeTopBoundary - 100;
@@ -255,15 +225,23 @@ public void updateJump(float delta) {
         }
 
         // Prevent the hero from exceeding maze boundaries
-        if (y > game.getMazeLoader().getTop().y) {
-            y = game.getMazeLoader().getTop().y; // Clamp to maze top boundary
+        if (y > game.getLevel().getTop().y) {
+            y = game.getLevel().getTop().y; // Clamp to maze top boundary
             isJumping = false;
             isFalling = true;
         }
     }
 
-    public void checkJumpCollision(MazeLoader mazeLoader) {
-        for (Rectangle platform : mazeLoader.getPlatforms()) {
+    /**
+     * Stops a jump at a platform above the hero or lands the hero on a platform below it.
+     * Only the platforms overlapping the hero are looked at, found through the column index of the level.
+     *
+     * @param level The level holding the platforms.
+     */
+    public void checkJumpCollision(Level level) {
+        nearbyPlatforms.clear();
+        level.getPlatforms().query(rect.x, rect.y, rect.width, rect.height, nearbyPlatforms);
+        for (Rectangle platform : nearbyPlatforms) {
             if (getRect().overlaps(platform)) {
                 // If jumping up, stop at the platform
                 if (isJumping && y + rect.height <= platform.y) {
@@ -296,13 +274,6 @@ public int getScore() {
 
     // Getters & Setters
 
-    public String getDirection() {
-        return direction;
-    }
-
-    public void setDirection(String direction) {
-        this.direction = direction;
-    }
     public int getLives() {
         return lives;
     }
@@ -341,9 +312,15 @@ public void setDanceTimer(float danceTimer) {
     }
 
     public Animation<TextureRegion> getDanceAnimation() {
+        if (danceAnimation == null) {
+            danceAnimation = loadHorizontalAnimation("character.png", 96, 0, 16, 32, 2, 0.25f);
+        }
         return danceAnimation;
     }
     public Animation<TextureRegion> getCryAnimation() {
+        if (cryAnimation == null) {
+            cryAnimation = loadHorizontalAnimation("character.png", 80, 0, 16, 32, 1, 0.25f);
+        }
         return cryAnimation;
     }
 }
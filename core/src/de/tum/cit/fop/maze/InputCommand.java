@@ -0,0 +1,23 @@
+package de.tum.cit.fop.maze;
+
+/**
+ * The InputCommand class defines the input of one simulation step as a bit mask, so a step depends on nothing but the
+ * world and this number. A {@link CommandBuffer} turns the key events into the commands of the steps; a
+ * {@link Replay} stores the commands of every step and feeds them back in instead.
+ */
+public final class InputCommand {
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int DOWN = 1 << 2;
+    public static final int UP = 1 << 3;
+    public static final int SPRINT = 1 << 4;
+    public static final int JUMP = 1 << 5; // Only set on the first step after the jump key was pressed
+    public static final int PAUSED = 1 << 6; // Set on the first step after the game was paused, does not change the step
+
+    private InputCommand() {
+    }
+
+    public static boolean has(int command, int bit) {
+        return (command & bit) != 0;
+    }
+}
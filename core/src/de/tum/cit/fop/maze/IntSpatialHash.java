@@ -0,0 +1,127 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * The IntSpatialHash class is a {@link SpatialHash} for objects that are stored in parallel arrays and identified by
+ * their index, such as the enemies of {@link EnemySystem}. The indices are kept as plain ints, so filing and finding
+ * objects does not box anything.
+ */
+public class IntSpatialHash {
+    private final float cellSize;
+    private final float maxObjectSize;
+    private final LongMap<IntArray> cells = new LongMap<>();
+    private int size;
+
+    /**
+     * Constructs an empty IntSpatialHash.
+     *
+     * @param cellSize      The side length of a cell in world units.
+     * @param maxObjectSize The width and height of the largest object that will be stored.
+     */
+    public IntSpatialHash(float cellSize, float maxObjectSize) {
+        this.cellSize = cellSize;
+        this.maxObjectSize = maxObjectSize;
+    }
+
+    /**
+     * Adds an object at the given position.
+     *
+     * @param id The index of the object.
+     * @param x  The x-coordinate of the lower left corner of the object.
+     * @param y  The y-coordinate of the lower left corner of the object.
+     */
+    public void add(int id, float x, float y) {
+        long key = key(cell(x), cell(y));
+        IntArray bucket = cells.get(key);
+        if (bucket == null) {
+            bucket = new IntArray(false, 8);
+            cells.put(key, bucket);
+        }
+        bucket.add(id);
+        size++;
+    }
+
+    /**
+     * Removes an object that was added at the given position.
+     *
+     * @param id The index of the object.
+     * @param x  The x-coordinate the object was added or last moved to.
+     * @param y  The y-coordinate the object was added or last moved to.
+     * @return {@code true} if the object was found.
+     */
+    public boolean remove(int id, float x, float y) {
+        IntArray bucket = cells.get(key(cell(x), cell(y)));
+        if (bucket != null && bucket.removeValue(id)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates the cell of an object after it moved. Nothing happens as long as it stays in the same cell.
+     *
+     * @param id   The index of the object.
+     * @param oldX The x-coordinate the object was filed under.
+     * @param oldY The y-coordinate the object was filed under.
+     * @param newX The new x-coordinate.
+     * @param newY The new y-coordinate.
+     */
+    public void move(int id, float oldX, float oldY, float newX, float newY) {
+        if (cell(oldX) == cell(newX) && cell(oldY) == cell(newY)) {
+            return;
+        }
+        if (remove(id, oldX, oldY)) {
+            add(id, newX, newY);
+        }
+    }
+
+    /**
+     * Collects every object whose cell overlaps the given area. The result may contain objects that are slightly outside.
+     *
+     * @param x      The x-coordinate of the lower left corner of the area.
+     * @param y      The y-coordinate of the lower left corner of the area.
+     * @param width  The width of the area.
+     * @param height The height of the area.
+     * @param out    The array the indices are added to, it is not cleared.
+     */
+    public void query(float x, float y, float width, float height, IntArray out) {
+        int fromX = cell(x - maxObjectSize);
+        int fromY = cell(y - maxObjectSize);
+        int toX = cell(x + width);
+        int toY = cell(y + height);
+        for (int cellY = fromY; cellY <= toY; cellY++) {
+            for (int cellX = fromX; cellX <= toX; cellX++) {
+                IntArray bucket = cells.get(key(cellX, cellY));
+                if (bucket != null) {
+                    out.addAll(bucket);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every object. The cells are kept, so refilling the hash does not allocate.
+     */
+    public void clear() {
+        for (IntArray bucket : cells.values()) {
+            bucket.clear();
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int cell(float world) {
+        return MathUtils.floor(world / cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
@@ -1,6 +1,7 @@
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 public class Key extends GameObject {
 
@@ -9,7 +10,6 @@ public class Key extends GameObject {
 
     public Key(float x,float y) {
         super(x,y,40,40);
-        this.animation = loadHorizontalAnimation("objects.png",0,64,16,16,4,0.1f);
     }
 
     public boolean isCollected() {
@@ -20,9 +20,20 @@ public void collect() {
         this.collected = true;
     }
 
-    public void draw(SpriteBatch spriteBatch) {
+    @Override
+    public void reset() {
+        super.reset();
+        collected = false;
+    }
+
+    public void draw(SpriteQueue queue) {
         if (!collected) {
-            spriteBatch.draw(animation.getKeyFrame(0, true), x, y, rect.width, rect.height);
+            queue.draw(getAnimation().getKeyFrame(0, true), x, y, rect.width, rect.height);
         }
     }
+
+    @Override
+    protected Animation<TextureRegion> loadAnimation() {
+        return loadHorizontalAnimation("objects.png",0,64,16,16,4,0.1f);
+    }
 }
@@ -0,0 +1,248 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Level class holds the state of the level being played: its tiles, its objects and the bounds around the maze.
+ * Where {@link LevelData} is what was read from a map file, a Level is the world built from it.
+ * <p>
+ * The game keeps one Level and loads every map into it. {@link #begin(TileGrid, long)} starts a level and
+ * {@link #unload()} tears it down explicitly, so nothing of the previous level survives into the next one.
+ * The objects come from pools and go back to them when the level is unloaded, and the containers keep their capacity,
+ * so loading a level again, or the next one of a similar size, allocates next to nothing.
+ */
+public class Level {
+    private final Pool<Trap> trapPool = new Pool<>(16) {
+        @Override
+        protected Trap newObject() {
+            return new Trap(0, 0);
+        }
+    };
+    private final Pool<Exit> exitPool = new Pool<>(4) {
+        @Override
+        protected Exit newObject() {
+            return new Exit(0, 0);
+        }
+    };
+    private final Pool<Key> keyPool = new Pool<>(1) {
+        @Override
+        protected Key newObject() {
+            return new Key(0, 0);
+        }
+    };
+    private final Pool<Entry> entryPool = new Pool<>(1) {
+        @Override
+        protected Entry newObject() {
+            return new Entry(0, 0);
+        }
+    };
+    private final Pool<Rectangle> platformPool = new Pool<>(64) {
+        @Override
+        protected Rectangle newObject() {
+            return new Rectangle();
+        }
+    };
+    private final TileGrid empty = new TileGrid(); // The tiles while no level is loaded
+    private TileGrid mazeData = empty;
+    private final List<Trap> traps = new ArrayList<>();
+    private final List<Exit> exits = new ArrayList<>();
+    private final Array<Rectangle> platformList = new Array<>(false, 64, Rectangle.class); // To return them to the pool
+    private final PlatformIndex platforms = new PlatformIndex();
+    private final EnemySystem enemies = new EnemySystem();
+    private Key key;
+    private Entry entry;
+    // The areas around the maze, the hero wins when it reaches one of them
+    private final Rectangle top = new Rectangle();
+    private final Rectangle right = new Rectangle();
+    private final Rectangle bottom = new Rectangle();
+    private final Rectangle left = new Rectangle();
+
+    /**
+     * Unloads the current level and starts a new one on the given tiles. The objects are added afterwards.
+     *
+     * @param mazeData The tiles of the new level.
+     * @param seed     The seed of the level, the enemies draw their random directions from it.
+     */
+    public void begin(TileGrid mazeData, long seed) {
+        unload();
+        this.mazeData = mazeData;
+        enemies.setSeed(seed); // Before the enemies are spawned, so the same seed gives the same level
+    }
+
+    /**
+     * Removes everything of the current level and returns its objects to the pools. The tiles are dropped, not
+     * cleared, since a level's grid may be shared with other games. Does nothing if no level is loaded.
+     */
+    public void unload() {
+        for (Trap trap : traps) {
+            trapPool.free(trap);
+        }
+        traps.clear();
+        for (Exit exit : exits) {
+            exitPool.free(exit);
+        }
+        exits.clear();
+        platformPool.freeAll(platformList);
+        platformList.clear();
+        platforms.clear();
+        enemies.clear();
+        if (key != null) {
+            keyPool.free(key);
+            key = null;
+        }
+        if (entry != null) {
+            entryPool.free(entry);
+            entry = null;
+        }
+        mazeData = empty;
+    }
+
+    /**
+     * Adds a trap to the level.
+     *
+     * @param x The x-coordinate in world units.
+     * @param y The y-coordinate in world units.
+     * @return The trap.
+     */
+    public Trap addTrap(float x, float y) {
+        Trap trap = trapPool.obtain();
+        trap.setPosition(x, y);
+        traps.add(trap);
+        return trap;
+    }
+
+    /**
+     * Adds an exit to the level.
+     *
+     * @param x The x-coordinate in world units.
+     * @param y The y-coordinate in world units.
+     * @return The exit.
+     */
+    public Exit addExit(float x, float y) {
+        Exit exit = exitPool.obtain();
+        exit.setPosition(x, y);
+        exits.add(exit);
+        return exit;
+    }
+
+    /**
+     * Adds a platform to the level.
+     *
+     * @param x      The x-coordinate of the lower left corner in world units.
+     * @param y      The y-coordinate of the lower left corner in world units.
+     * @param width  The width of the platform.
+     * @param height The height of the platform.
+     */
+    public void addPlatform(float x, float y, float width, float height) {
+        Rectangle platform = platformPool.obtain().set(x, y, width, height);
+        platformList.add(platform);
+        platforms.add(platform);
+    }
+
+    /**
+     * Places the key of the level. A level has one key, placing another one replaces it.
+     *
+     * @param x The x-coordinate in world units.
+     * @param y The y-coordinate in world units.
+     * @return The key.
+     */
+    public Key placeKey(float x, float y) {
+        if (key != null) {
+            keyPool.free(key);
+        }
+        key = keyPool.obtain();
+        key.setPosition(x, y);
+        return key;
+    }
+
+    /**
+     * Places the entry of the level. A level has one entry, placing another one replaces it.
+     *
+     * @param x The x-coordinate in world units.
+     * @param y The y-coordinate in world units.
+     * @return The entry.
+     */
+    public Entry placeEntry(float x, float y) {
+        if (entry != null) {
+            entryPool.free(entry);
+        }
+        entry = entryPool.obtain();
+        entry.setPosition(x, y);
+        return entry;
+    }
+
+    /**
+     * @return The number of objects waiting in the pools. After a level was unloaded these are all objects the level had.
+     */
+    public int getPooledCount() {
+        return trapPool.getFree() + exitPool.getFree() + keyPool.getFree() + entryPool.getFree()
+                + platformPool.getFree();
+    }
+
+    public TileGrid getMazeData() {
+        return mazeData;
+    }
+
+    /**
+     * @return The traps of the level.
+     */
+    public List<Trap> getTraps() {
+        return traps;
+    }
+
+    /**
+     * @return The exits of the level.
+     */
+    public List<Exit> getExits() {
+        return exits;
+    }
+
+    /**
+     * @return The platforms of the level, indexed by tile column.
+     */
+    public PlatformIndex getPlatforms() {
+        return platforms;
+    }
+
+    /**
+     * @return The enemies of the level. The system is kept across levels, so its settings are too.
+     */
+    public EnemySystem getEnemies() {
+        return enemies;
+    }
+
+    /**
+     * @return The key, or {@code null} if the level has none.
+     */
+    public Key getKey() {
+        return key;
+    }
+
+    /**
+     * @return The entry, or {@code null} if the level has none.
+     */
+    public Entry getEntry() {
+        return entry;
+    }
+
+    public Rectangle getTop() {
+        return top;
+    }
+
+    public Rectangle getRight() {
+        return right;
+    }
+
+    public Rectangle getBottom() {
+        return bottom;
+    }
+
+    public Rectangle getLeft() {
+        return left;
+    }
+}
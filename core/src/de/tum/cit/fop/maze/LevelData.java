@@ -0,0 +1,108 @@
+package de.tum.cit.fop.maze;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The LevelData class is the parsed model of a level: its tile grid and the table of objects to spawn.
+ * It is built on a background thread by {@link #load(String, MazeTextParser)} and not modified afterwards,
+ * everything that needs OpenGL (textures of the objects) is created later on the render thread.
+ */
+public final class LevelData {
+    private final String path;
+    private final TileGrid mazeData;
+    private final int[] entityX;
+    private final int[] entityY;
+    private final byte[] entityType;
+
+    private LevelData(String path, TileGrid mazeData, int[] entityX, int[] entityY, byte[] entityType) {
+        this.path = path;
+        this.mazeData = mazeData;
+        this.entityX = entityX;
+        this.entityY = entityY;
+        this.entityType = entityType;
+    }
+
+    /**
+     * Loads a level from a map file. A compiled ".mazebin" version next to the file is preferred over the text.
+     * This does no OpenGL work and can run on any thread.
+     *
+     * @param fileName The map file.
+     * @param parser   The parser used for text maps, it can be polled for progress while this runs.
+     * @return The loaded level.
+     * @throws IOException If the map cannot be read or is malformed.
+     */
+    public static LevelData load(String fileName, MazeTextParser parser) throws IOException {
+        TileGrid mazeData = new TileGrid();
+        if (MazeBinary.hasCompiled(fileName)) {
+            MazeBinary.read(MazeBinary.compiledPath(fileName), mazeData);
+        } else {
+            try (InputStream in = new FileInputStream(fileName)) {
+                parser.parse(in, mazeData);
+            }
+        }
+
+        if (mazeData.getSource() instanceof MazeBinary.MappedMaze mappedMaze) {
+            int count = mappedMaze.getEntityCount();
+            int[] xs = new int[count];
+            int[] ys = new int[count];
+            byte[] types = new byte[count];
+            for (int i = 0; i < count; i++) {
+                xs[i] = mappedMaze.getEntityX(i);
+                ys[i] = mappedMaze.getEntityY(i);
+                types[i] = (byte) mappedMaze.getEntityType(i);
+            }
+            return new LevelData(fileName, mazeData, xs, ys, types);
+        }
+
+        int count = 0;
+        for (int y = mazeData.getMinY(); y <= mazeData.getMaxY(); y++) {
+            for (int x = mazeData.getMinX(); x <= mazeData.getMaxX(); x++) {
+                if (mazeData.get(x, y) > TileGrid.WALL) {
+                    count++;
+                }
+            }
+        }
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        byte[] types = new byte[count];
+        int i = 0;
+        for (int y = mazeData.getMinY(); y <= mazeData.getMaxY(); y++) {
+            for (int x = mazeData.getMinX(); x <= mazeData.getMaxX(); x++) {
+                int type = mazeData.get(x, y);
+                if (type > TileGrid.WALL) {
+                    xs[i] = x;
+                    ys[i] = y;
+                    types[i] = (byte) type;
+                    i++;
+                }
+            }
+        }
+        return new LevelData(fileName, mazeData, xs, ys, types);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public TileGrid getMazeData() {
+        return mazeData;
+    }
+
+    public int getEntityCount() {
+        return entityType.length;
+    }
+
+    public int getEntityX(int i) {
+        return entityX[i];
+    }
+
+    public int getEntityY(int i) {
+        return entityY[i];
+    }
+
+    public int getEntityType(int i) {
+        return entityType[i];
+    }
+}
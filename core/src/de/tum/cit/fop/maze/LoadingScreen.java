@@ -0,0 +1,234 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+
+import java.io.File;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * LoadingScreen loads a level without blocking the render thread.
+ * The map is parsed into a {@link LevelData} on a background thread, then the game objects, which need OpenGL,
+ * are created on the render thread a few at a time per frame, and finally the game screen bakes the ground and the
+ * walls around its camera, also a few chunks per frame. A progress bar shows the phases,
+ * and the Back button cancels the loading and returns to the map selection.
+ * If the map cannot be read or parsed, the reason is shown below the progress bar until the player goes back.
+ */
+public class LoadingScreen implements Screen {
+    private static final long SLICE_NANOS = 4_000_000L; // Time per frame spent on creating game objects
+    private static final float PARSE_SHARE = 0.5f; // Part of the progress bar used by the background parsing
+    private static final float BAKE_SHARE = 0.1f; // Part of the progress bar used by baking the static layers
+
+    private final MazeRunnerGame game;
+    private final Stage stage;
+    private final ProgressBar progressBar;
+    private final Label errorLabel;
+    private final ExecutorService executor;
+    private final MazeTextParser parser;
+    private final Future<LevelData> loading;
+    private final long fileSize;
+    private LevelData level;
+    private int createdObjects;
+    private GameScreen gameScreen; // Created once all objects are, bakes its static layers before it is shown
+    private boolean failed;
+    private boolean cancelRequested;
+
+    /**
+     * Constructs a LoadingScreen and starts loading the level in the background.
+     *
+     * @param game      The MazeRunnerGame instance.
+     * @param levelPath The path of the map file.
+     */
+    public LoadingScreen(MazeRunnerGame game, String levelPath) {
+        this.game = game;
+        this.stage = new Stage(new ScreenViewport(new OrthographicCamera()), game.getSpriteBatch());
+        Table table = new Table();
+        table.setFillParent(true);
+        stage.addActor(table);
+
+        table.add(new Label(game.getLanguages().get("loading"), game.getSkin(), "title")).padBottom(50).row();
+        progressBar = new ProgressBar(0, 1, 0.01f, false, game.getSkin());
+        table.add(progressBar).width(400).padBottom(50).row();
+        errorLabel = new Label("", game.getSkin());
+        errorLabel.setWrap(true);
+        table.add(errorLabel).width(800).padBottom(50).row();
+        errorLabel.setVisible(false);
+
+        TextButton backButton = new TextButton(game.getLanguages().get("back"), game.getSkin());
+        table.add(backButton).width(350).padBottom(20).row();
+        backButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                cancelRequested = true; // Handled in render, the stage must not be disposed while it acts
+            }
+        });
+
+        this.fileSize = new File(levelPath).length();
+        this.parser = new MazeTextParser();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "level-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loading = executor.submit(() -> LevelData.load(levelPath, parser));
+    }
+
+    @Override
+    public void render(float delta) {
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        if (cancelRequested) {
+            cancel();
+            return;
+        }
+        if (level == null) {
+            if (!failed) { // After a failure the error stays on screen until the player goes back
+                waitForLevel();
+            }
+        } else if (gameScreen == null) {
+            createObjects();
+        } else {
+            bakeStaticLayers();
+        }
+        if (game.getScreen() != this) {
+            return; // Loading finished or failed during this frame
+        }
+        stage.act(Math.min(delta, 1 / 30f));
+        stage.draw();
+    }
+
+    /**
+     * Shows the parsing progress and takes over the level once the background thread is done.
+     */
+    private void waitForLevel() {
+        if (!loading.isDone()) {
+            progressBar.setValue(fileSize > 0 ? PARSE_SHARE * Math.min(1f, (float) parser.getBytesRead() / fileSize) : 0);
+            return;
+        }
+        try {
+            level = loading.get();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            showError(e.getCause());
+            return;
+        } catch (CancellationException | InterruptedException e) {
+            cancel();
+            return;
+        }
+        game.getLevel().begin(level.getMazeData(), game.getLevelSeed());
+        game.getMusicLoader().setSeed(game.getLevelSeed());
+        game.getMazeLoader().calculateMaxCoordinates();
+        progressBar.setValue(PARSE_SHARE);
+    }
+
+    /**
+     * Shows why the level could not be loaded, a {@link MazeTextParser.MazeFormatException} names the line.
+     *
+     * @param error The exception the background thread failed with.
+     */
+    private void showError(Throwable error) {
+        failed = true;
+        String reason = error.getMessage() != null ? error.getMessage() : error.toString();
+        errorLabel.setText(game.getLanguages().get("loadfailed") + "\n" + reason);
+        errorLabel.setVisible(true);
+    }
+
+    /**
+     * Creates game objects until the time slice of this frame is used up, then creates the game screen when all are created.
+     */
+    private void createObjects() {
+        long start = TimeUtils.nanoTime();
+        int count = level.getEntityCount();
+        while (createdObjects < count && TimeUtils.nanoTime() - start < SLICE_NANOS) {
+            game.getMazeLoader().createObjects(level, createdObjects, createdObjects + 1);
+            createdObjects++;
+        }
+        float objectShare = 1 - PARSE_SHARE - BAKE_SHARE;
+        progressBar.setValue(PARSE_SHARE + (count == 0 ? objectShare : objectShare * createdObjects / count));
+        if (createdObjects == count) {
+            gameScreen = new GameScreen(game);
+        }
+    }
+
+    /**
+     * Lets the game screen bake the chunks around its camera until the time slice of this frame is used up,
+     * then starts the game when all of them are baked.
+     */
+    private void bakeStaticLayers() {
+        long start = TimeUtils.nanoTime();
+        boolean baked;
+        do {
+            baked = gameScreen.prepare();
+        } while (!baked && TimeUtils.nanoTime() - start < SLICE_NANOS);
+        if (baked) {
+            progressBar.setValue(1);
+            startGame();
+        }
+    }
+
+    private void startGame() {
+        game.getMusicLoader().pauseMenuMusic();
+        if (!game.getMusicLoader().isForbiddenGame()) {
+            game.getMusicLoader().getCurrentMusic();
+            game.getMusicLoader().playGameMusic();
+        }
+        game.goToGame(gameScreen);
+        dispose();
+    }
+
+    /**
+     * Stops loading, removes the objects created so far and goes back to the map selection.
+     */
+    private void cancel() {
+        loading.cancel(true);
+        if (gameScreen != null) {
+            gameScreen.dispose();
+        }
+        game.unloadLevel();
+        game.setScreen(new SelectMapScreen(game));
+        dispose();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        stage.getViewport().update(width, height, true);
+    }
+
+    @Override
+    public void show() {
+        Gdx.input.setInputProcessor(stage);
+    }
+
+    @Override
+    public void hide() {
+        Gdx.input.setInputProcessor(null);
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void dispose() {
+        executor.shutdownNow();
+        stage.dispose();
+    }
+}
@@ -0,0 +1,44 @@
+package de.tum.cit.fop.maze;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The MapCompiler class converts text maps into the compiled ".mazebin" format.
+ * Usage: {@code MapCompiler [file.properties | directory]...}, without arguments every map in "maps" is compiled.
+ * The compiled file is written next to the text map, where MazeLoader picks it up automatically.
+ */
+public class MapCompiler {
+
+    private MapCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> maps = new ArrayList<>();
+        if (args.length == 0) {
+            args = new String[]{"maps"};
+        }
+        for (String arg : args) {
+            Path path = Path.of(arg);
+            if (Files.isDirectory(path)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*.properties")) {
+                    stream.forEach(maps::add);
+                }
+            } else {
+                maps.add(path);
+            }
+        }
+
+        for (Path map : maps) {
+            TileGrid grid = new TileGrid();
+            MazeLoader.readTextMap(map.toString(), grid);
+            Path compiled = MazeBinary.compiledPath(map.toString());
+            MazeBinary.write(grid, compiled);
+            System.out.println(map + " -> " + compiled + " (" + grid.size() + " tiles, " + Files.size(compiled) + " bytes)");
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package de.tum.cit.fop.maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The MazeBinary class reads and writes the compiled ".mazebin" map format.
+ * <p>
+ * Layout (big endian):
+ * <pre>
+ * int    magic        "MAZB"
+ * int    version
+ * int    minX, minY   tile coordinates of the first tile
+ * int    width, height
+ * int    entityCount
+ * byte[] tiles        (width * height + 1) / 2 bytes, two tiles per byte, high nibble first, 0xF = no tile
+ * entity table        entityCount * (int x, int y, byte type)
+ * </pre>
+ * Walls (type 0) are only stored in the tile array; every other tile type is also listed in the entity table.
+ * Maps with more than {@link #STREAMING_THRESHOLD} tiles are not copied into memory, the TileGrid streams their chunks
+ * straight out of the mapped file instead.
+ */
+public class MazeBinary {
+    public static final String EXTENSION = ".mazebin";
+    private static final int MAGIC = 0x4D415A42;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 7 * Integer.BYTES;
+    private static final int ENTITY_SIZE = 2 * Integer.BYTES + 1;
+    private static final int NO_TILE = 0xF;
+    public static final int STREAMING_THRESHOLD = 1 << 20;
+
+    private MazeBinary() {
+    }
+
+    /**
+     * Returns the path of the compiled map that belongs to a text map, e.g. "level-1.properties" becomes "level-1.mazebin".
+     *
+     * @param fileName The file name of the text map.
+     * @return The path of the compiled map.
+     */
+    public static Path compiledPath(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        int slash = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+        String base = dot > slash ? fileName.substring(0, dot) : fileName;
+        return Path.of(base + EXTENSION);
+    }
+
+    /**
+     * Writes the given grid to a compiled map file.
+     *
+     * @param grid The grid to write.
+     * @param file The file to write to.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(TileGrid grid, Path file) throws IOException {
+        int minX = grid.getMinX();
+        int minY = grid.getMinY();
+        int width = grid.isEmpty() ? 0 : grid.getMaxX() - minX + 1;
+        int height = grid.isEmpty() ? 0 : grid.getMaxY() - minY + 1;
+        int tileCount = width * height;
+        int entityCount = 0;
+        for (int y = minY; y < minY + height; y++) {
+            for (int x = minX; x < minX + width; x++) {
+                int type = grid.get(x, y);
+                if (type >= NO_TILE) {
+                    throw new IOException("Tile type " + type + " at " + x + "," + y + " does not fit into the compiled format");
+                }
+                if (type > 0) {
+                    entityCount++;
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (tileCount + 1) / 2 + entityCount * ENTITY_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION)
+                .putInt(minX).putInt(minY)
+                .putInt(width).putInt(height)
+                .putInt(entityCount);
+        int packed = 0;
+        for (int i = 0; i < tileCount; i++) {
+            int type = grid.get(minX + i % width, minY + i / width);
+            int nibble = type == TileGrid.EMPTY ? NO_TILE : type;
+            if ((i & 1) == 0) {
+                packed = nibble << 4;
+            } else {
+                buffer.put((byte) (packed | nibble));
+            }
+        }
+        if ((tileCount & 1) == 1) {
+            buffer.put((byte) (packed | NO_TILE));
+        }
+        for (int y = minY; y < minY + height; y++) {
+            for (int x = minX; x < minX + width; x++) {
+                int type = grid.get(x, y);
+                if (type > 0) {
+                    buffer.putInt(x).putInt(y).put((byte) type);
+                }
+            }
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Memory-maps a compiled map file and copies its tiles into the given grid.
+     * Large maps are streamed from the mapped file instead, see {@link MappedMaze}.
+     *
+     * @param file The compiled map file.
+     * @param grid The grid to fill.
+     * @throws IOException If the file cannot be read or is not a valid compiled map.
+     */
+    public static void read(Path file, TileGrid grid) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a compiled maze");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException(file + " has unsupported version " + version);
+            }
+            int minX = buffer.getInt();
+            int minY = buffer.getInt();
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            int entityCount = buffer.getInt();
+            long expectedSize = HEADER_SIZE + ((long) width * height + 1) / 2 + (long) entityCount * ENTITY_SIZE;
+            if (width < 0 || height < 0 || entityCount < 0 || channel.size() != expectedSize) {
+                throw new IOException(file + " is truncated or corrupt");
+            }
+
+            if ((long) width * height > STREAMING_THRESHOLD) {
+                // The mapping stays valid after the channel is closed
+                grid.stream(new MappedMaze(buffer, minX, minY, width, height, entityCount), minX, minY, minX + width - 1, minY + height - 1);
+                return;
+            }
+
+            byte[] tiles = new byte[width * height];
+            for (int i = 0; i < tiles.length; i += 2) {
+                int packed = buffer.get() & 0xFF;
+                tiles[i] = nibbleToTile(packed >>> 4);
+                if (i + 1 < tiles.length) {
+                    tiles[i + 1] = nibbleToTile(packed & 0xF);
+                }
+            }
+            grid.setAll(minX, minY, width, height, tiles);
+        }
+    }
+
+    private static byte nibbleToTile(int nibble) {
+        return nibble == NO_TILE ? (byte) TileGrid.EMPTY : (byte) nibble;
+    }
+
+    /**
+     * Returns whether an up-to-date compiled map exists for the given text map.
+     *
+     * @param fileName The file name of the text map.
+     * @return {@code true} if a compiled map file exists next to it and is not older than the text map.
+     */
+    public static boolean hasCompiled(String fileName) {
+        Path compiled = compiledPath(fileName);
+        if (!Files.isRegularFile(compiled)) {
+            return false;
+        }
+        try {
+            Path text = Path.of(fileName);
+            return !Files.exists(text) || Files.getLastModifiedTime(compiled).compareTo(Files.getLastModifiedTime(text)) >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A compiled map that stays memory-mapped and hands out single chunks and entities on request.
+     * It only uses absolute reads on the mapped buffer, so the streaming thread and the render thread can share it.
+     */
+    public static class MappedMaze implements TileGrid.ChunkSource {
+        private final MappedByteBuffer buffer;
+        private final int minX;
+        private final int minY;
+        private final int width;
+        private final int height;
+        private final int entityCount;
+        private final int entityOffset;
+
+        MappedMaze(MappedByteBuffer buffer, int minX, int minY, int width, int height, int entityCount) {
+            this.buffer = buffer;
+            this.minX = minX;
+            this.minY = minY;
+            this.width = width;
+            this.height = height;
+            this.entityCount = entityCount;
+            this.entityOffset = buffer.capacity() - entityCount * ENTITY_SIZE;
+        }
+
+        @Override
+        public void readChunk(int chunkX, int chunkY, byte[] tiles) {
+            for (int row = 0; row < TileGrid.CHUNK_SIZE; row++) {
+                int y = (chunkY << TileGrid.CHUNK_SHIFT) + row - minY;
+                for (int column = 0; column < TileGrid.CHUNK_SIZE; column++) {
+                    int x = (chunkX << TileGrid.CHUNK_SHIFT) + column - minX;
+                    int tile = TileGrid.EMPTY;
+                    if (x >= 0 && y >= 0 && x < width && y < height) {
+                        tile = tile(x, y);
+                    }
+                    tiles[(row << TileGrid.CHUNK_SHIFT) | column] = (byte) tile;
+                }
+            }
+        }
+
+        @Override
+        public int readTile(int x, int y) {
+            return tile(x - minX, y - minY);
+        }
+
+        /**
+         * Reads a tile at coordinates relative to the corner of the map, which must lie inside it.
+         */
+        private int tile(int x, int y) {
+            long index = (long) y * width + x;
+            int packed = buffer.get(HEADER_SIZE + (int) (index >>> 1)) & 0xFF;
+            return nibbleToTile((index & 1) == 0 ? packed >>> 4 : packed & 0xF);
+        }
+
+        public int getEntityCount() {
+            return entityCount;
+        }
+
+        public int getEntityX(int i) {
+            return buffer.getInt(entityOffset + i * ENTITY_SIZE);
+        }
+
+        public int getEntityY(int i) {
+            return buffer.getInt(entityOffset + i * ENTITY_SIZE + Integer.BYTES);
+        }
+
+        public int getEntityType(int i) {
+            return buffer.get(entityOffset + i * ENTITY_SIZE + 2 * Integer.BYTES);
+        }
+    }
+}
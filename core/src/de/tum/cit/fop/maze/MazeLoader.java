@@ -1,24 +1,17 @@
 package de.tum.cit.fop.maze;
 
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
 
-import java.awt.*;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Map;
+import java.io.InputStream;
 
 /**
- * The MazeLoader class is responsible for loading and rendering the maze data.
+ * The MazeLoader class builds the {@link Level} of the game from a map and renders its platforms.
  */
 public class MazeLoader {
     private final MazeRunnerGame game;
-    private Rectangle top;
-    private Rectangle right;
-    private Rectangle bottom;
-    private Rectangle left;
-    private final ArrayList<Rectangle> platforms = new ArrayList<>();
 
     /**
      * Constructor for MazeLoader.
@@ -31,27 +24,16 @@ public MazeLoader(MazeRunnerGame game) {
 
 
     /**
-     * Loads maze data from a file and populates the game's mazeData map.
+     * Reads a map in the text format, where every line looks like "x,y=type".
      *
      * @param fileName The name of the file containing maze data.
+     * @param mazeData The grid the tiles are written to.
+     * @throws MazeTextParser.MazeFormatException If a line is malformed, the message contains the line number.
+     * @throws IOException                        If the file cannot be read.
      */
-    public void loadMazeData(String fileName) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("=");
-                if (parts.length == 2) {
-                    String[] coordinates = parts[0].split(",");
-                    if (coordinates.length == 2) {
-                        int x = Integer.parseInt(coordinates[0]);
-                        int y = Integer.parseInt(coordinates[1]);
-                        int objectType = Integer.parseInt(parts[1]);
-                        game.getMazeData().put(new Point(x, y), objectType);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+    public static void readTextMap(String fileName, TileGrid mazeData) throws IOException {
+        try (InputStream in = new FileInputStream(fileName)) {
+            new MazeTextParser().parse(in, mazeData);
         }
     }
 
@@ -64,11 +46,12 @@ public void calculateMaxCoordinates() {
         double minX = 0;
         double minY = 0;
 
-        for (Point point : game.getMazeData().keySet()) {
-            maxX = Math.max(maxX, point.x);
-            maxY = Math.max(maxY, point.y);
-            minX = Math.min(minX,point.x);
-            minY = Math.min(minY,point.y);
+        TileGrid mazeData = game.getMazeData();
+        if (!mazeData.isEmpty()) {
+            maxX = Math.max(maxX, mazeData.getMaxX());
+            maxY = Math.max(maxY, mazeData.getMaxY());
+            minX = Math.min(minX, mazeData.getMinX());
+            minY = Math.min(minY, mazeData.getMinY());
         }
 
         maxX += 20;
@@ -80,105 +63,73 @@ public void calculateMaxCoordinates() {
         game.setMaxY(maxY);
         game.setMinX(minX);
         game.setMinY(minY);
-        this.top = new Rectangle((float) minX*60, (float) (maxY-19)*60, (float) ((maxX+20)*60),19*60);
-        this.bottom = new Rectangle((float) minX*60, (float) minY*60, (float) ((maxX+20)*60),19*60);
-        this.right = new Rectangle((float) (maxX-19)*60, (float) (minY-20)*60, 19*60,(float)(maxY-20)*60);
-        this.left = new Rectangle((float) (minX)*60, (float) (minY+20)*60, 19*60,(float)(maxY-20)*60);
+        Level level = game.getLevel();
+        level.getTop().set((float) minX*60, (float) (maxY-19)*60, (float) ((maxX+20)*60),19*60);
+        level.getBottom().set((float) minX*60, (float) minY*60, (float) ((maxX+20)*60),19*60);
+        level.getRight().set((float) (maxX-19)*60, (float) (minY-20)*60, 19*60,(float)(maxY-20)*60);
+        level.getLeft().set((float) (minX)*60, (float) (minY+20)*60, 19*60,(float)(maxY-20)*60);
     }
 
     /**
-     * Adds the ground, which is grass.
+     * Creates the game objects of a level in the game's {@link Level}, which must have been begun with the level's
+     * tiles. The loading screen calls it in small slices to keep the window responsive.
+     *
+     * @param level The level whose object table is used.
+     * @param from  The index of the first object to create.
+     * @param to    The index after the last object to create.
      */
-    public void addGround() {
-        for (int x = (int)game.getMinX(); x <= game.getMaxX(); x++) {
-            for (int y = (int)game.getMinY(); y <= game.getMaxY(); y++) {
-                game.getSpriteBatch().begin();
-                game.getSpriteBatch().draw(game.getAllTiles().getGrass(), x * 60, y * 60, 60, 60);
-                game.getSpriteBatch().end();
-            }
+    public void createObjects(LevelData level, int from, int to) {
+        for (int i = from; i < to; i++) {
+            createObject(level.getEntityX(i) * 60, level.getEntityY(i) * 60, level.getEntityType(i));
         }
     }
 
     /**
-     * Creates game objects based on the loaded maze data.
+     * Creates the game object for a single tile.
+     *
+     * @param x          The x-coordinate of the tile in world units.
+     * @param y          The y-coordinate of the tile in world units.
+     * @param objectType The tile type.
      */
-    public void createObjects(){
-        for (Map.Entry<Point, Integer> entry : game.getMazeData().entrySet()) {
-            Point point = entry.getKey();
-            int x = point.x * 60;
-            int y = point.y * 60;
-            int objectType = entry.getValue();
-            switch (objectType){
-                case 1:
-                    game.setEntry(new de.tum.cit.fop.maze.Entry(x,y));
-                    game.getEntry().setMazeLeaver(new Rectangle(x,y,5,60));
-                    game.getHero().setX(x+10);
-                    game.getHero().setY(y);
-                    game.getHero().setPrevX(game.getHero().getX());
-                    game.getHero().setPrevY(game.getHero().getY());
-
-                    break;
-                case 2:
-                    de.tum.cit.fop.maze.Exit.getExitList().add(new de.tum.cit.fop.maze.Exit(x,y));
-                    break;
-                case 3:
-                    Trap.getTrapList().add(new Trap(x,y));
-                    break;
-                case 4:
-                    de.tum.cit.fop.maze.Enemy.enemyList.add(new de.tum.cit.fop.maze.Enemy(x , y));
-                    break;
-                case 5:
-                    game.setKey(new Key(x+10,y+10));
-                    break;
-
-                case 6: // Platform type
-                    platforms.add(new Rectangle(x, y, 60, 10)); // A platform with dimensions 60x10
-                    break;
-            }
+    private void createObject(int x, int y, int objectType) {
+        Level level = game.getLevel();
+        switch (objectType){
+            case 1:
+                level.placeEntry(x,y);
+                game.getHero().setX(x+10);
+                game.getHero().setY(y);
+                game.getHero().setPrevX(game.getHero().getX());
+                game.getHero().setPrevY(game.getHero().getY());
+
+                break;
+            case 2:
+                level.addExit(x,y);
+                break;
+            case 3:
+                level.addTrap(x,y);
+                break;
+            case 4:
+                level.getEnemies().spawn(x, y);
+                break;
+            case 5:
+                level.placeKey(x+10,y+10);
+                break;
+
+            case 6: // Platform type
+                level.addPlatform(x, y, 60, 10); // A platform with dimensions 60x10
+                break;
         }
     }
 
     /**
-     * Renders the walls on the screen.
+     * Submits platforms to their render layer, which is drawn on top of the walls.
+     *
+     * @param visiblePlatforms The platforms to draw, usually the ones in view.
+     * @param queue            The SpriteQueue of the platform layer.
      */
-    public void renderMaze() {
-        for (Map.Entry<Point, Integer> entry : game.getMazeData().entrySet()) {
-            Point point = entry.getKey();
-            int x = point.x * 60;
-            int y = point.y * 60;
-            game.getSpriteBatch().begin();
-            if (entry.getValue()==0) {
-                game.getSpriteBatch().draw(game.getAllTiles().getWall(), x, y, 60, 60);
-            }
-            game.getSpriteBatch().end();
+    public void renderPlatforms(Array<Rectangle> visiblePlatforms, SpriteQueue queue) {
+        for (Rectangle platform : visiblePlatforms) {
+            queue.draw(game.getAllTiles().getPlatform(), platform.x, platform.y, platform.width, platform.height);
         }
     }
-
-    public void renderPlatforms() {
-        for (Rectangle platform : platforms) {
-            game.getSpriteBatch().begin();
-            game.getSpriteBatch().draw(game.getAllTiles().getPlatform(), platform.x, platform.y, platform.width, platform.height);
-            game.getSpriteBatch().end();
-        }
-    }
-
-    public ArrayList<Rectangle> getPlatforms() {
-        return platforms;
-    }
-
-    public Rectangle getBottom() {
-        return bottom;
-    }
-
-    public Rectangle getTop() {
-        return top;
-    }
-
-    public Rectangle getRight() {
-        return right;
-    }
-
-    public Rectangle getLeft() {
-        return left;
-    }
 }
@@ -9,16 +9,15 @@
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import games.spooky.gdx.nativefilechooser.NativeFileChooser;
 import games.spooky.gdx.nativefilechooser.NativeFileChooserCallback;
 import games.spooky.gdx.nativefilechooser.NativeFileChooserConfiguration;
 
-import java.awt.*;
 import java.sql.Time;
-import java.util.HashMap;
-import java.util.Map;
 
 
 /**
@@ -39,10 +38,8 @@ public class MazeRunnerGame extends Game{
     private Skin skin;
     private Hero hero;
     private final NativeFileChooser fileChooser;
-    public static final Map<Point, Integer> mazeData = new HashMap<>();
+    private final Level level = new Level(); // Reused by every level, see Level#unload()
     private de.tum.cit.fop.maze.Tiles allTiles;
-    private Key key;
-    private de.tum.cit.fop.maze.Entry entry;
     private de.tum.cit.fop.maze.MazeLoader mazeLoader;
     private de.tum.cit.fop.maze.Languages languages;
     private MusicLoader musicLoader;
@@ -50,6 +47,12 @@ public class MazeRunnerGame extends Game{
     private OrthographicCamera camera;
     private long startTime;
     private int finalScore;
+    private String levelPath;
+    private long levelSeed; // Seeds every random generator of the level, a replay brings its own
+    private Replay replay; // The replay that is played in the current level, if any
+    private Replay pendingReplay; // The replay to play once the game is created
+    private SimulationListener replayListener; // Told when a replay ends, besides the sound effects
+    private String recordPath; // Where the input of every level is recorded to, if anywhere
 
 
     /**
@@ -75,10 +78,8 @@ public void showFileChooser() {
         fileChooser.chooseFile(conf, new NativeFileChooserCallback() {
             @Override
             public void onFileChosen(FileHandle file) {
-                mazeLoader.loadMazeData(file.path());
-                createMaze();
-                renderMaze();
-                goToGame();
+                // The chooser may call back from its own thread, screens must be switched on the render thread
+                Gdx.app.postRunnable(() -> loadLevel(file.path()));
             }
 
             @Override
@@ -93,7 +94,7 @@ public void onError(Exception exception) {
         });
     }
     /**
-     * Called when the game is created. Initializes the SpriteBatch, Skin and menu music. It also loads all the musics and sound effects..
+     * Called when the game is created. Initializes the SpriteBatch, Skin and menu music. It also loads the sound effects, the music is loaded when it is first played.
      */
     @Override
     public void create() {
@@ -101,12 +102,12 @@ public void create() {
         // Load essential assets here (e.g., UI skin, textures)
         assetManager.load("assets/Gameover.jpeg", Texture.class);
         assetManager.load("craft/craftacular-ui.json", Skin.class);
-        assetManager.load("objects.png", Texture.class);// Load the objects texture
-        assetManager.load("character.png", Texture.class);
+        assetManager.load(AtlasPacker.ATLAS, TextureAtlas.class); // All sprite sheets of the game objects on one page
         assetManager.load("Winner.jpeg", Texture.class);
         assetManager.load("GameOver.jpeg", Texture.class);
         // Optionally load other assets asynchronously
         assetManager.finishLoading(); // Ensure assets are loaded before use
+        AnimationRegistry.setAtlas(assetManager.get(AtlasPacker.ATLAS, TextureAtlas.class));
         spriteBatch = new SpriteBatch();
         skin = assetManager.get("craft/craftacular-ui.json", Skin.class);// Load UI skin
 
@@ -133,10 +134,13 @@ public void create() {
         }
         createMaze();
         this.hero = new Hero(0,0, this);
-        mazeLoader.createObjects();
         this.allTiles = new Tiles();
         this.languages = new de.tum.cit.fop.maze.Languages();
         goToMenu();
+        if (pendingReplay != null) {
+            playReplay(pendingReplay);
+            pendingReplay = null;
+        }
     }
 
     public AssetManager getAssetManager() {
@@ -154,12 +158,23 @@ public void goToMenu() {
         if (!(getScreen() instanceof MenuScreen)) {
             this.setScreen(getOrCreateMenuScreen()); // Use a helper method to get or create the MenuScreen
         }
+        unloadLevel();
+    }
 
-        // Dispose of the GameScreen if it exists
+    /**
+     * Ends the current level: disposes its game screen and returns the objects of the level to their pools.
+     * Nothing of the level is kept afterwards. Does nothing if no level is loaded.
+     */
+    public void unloadLevel() {
         if (gameScreen != null) {
+            if (getScreen() == gameScreen) {
+                setScreen(null);
+            }
             gameScreen.dispose();
             gameScreen = null;
         }
+        level.unload();
+        musicLoader.clearEffects(); // Nothing the last steps posted is played over the next screen
     }
 
     private MenuScreen getOrCreateMenuScreen() {
@@ -170,9 +185,12 @@ private MenuScreen getOrCreateMenuScreen() {
     }
     /**
      * Switches to the game screen.
+     *
+     * @param screen The game screen of the loaded level, created by the LoadingScreen.
      */
-    public void goToGame() {
-        this.setScreen(new de.tum.cit.fop.maze.GameScreen(this)); // Set the current screen to GameScreen
+    public void goToGame(GameScreen screen) {
+        gameScreen = screen;
+        this.setScreen(gameScreen); // Set the current screen to GameScreen
         if (menuScreen != null) {
             menuScreen.dispose(); // Dispose the menu screen if it exists
             menuScreen = null;
@@ -182,29 +200,45 @@ public void goToGame() {
         }
     }
     /**
-     * Loads the character animation from the character.png file.
+     * Switches to the loading screen, which loads the given map in the background and then starts the game.
+     *
+     * @param levelPath The path of the map file.
      */
-    public void createMaze() {
-        mazeLoader.calculateMaxCoordinates();
-        mazeLoader.addGround();
+    public void loadLevel(String levelPath) {
+        loadLevel(levelPath, MathUtils.random.nextLong(), null);
     }
 
-    public void renderMaze() {
-        mazeLoader.renderMaze();
+    /**
+     * Loads the map of a replay with the replay's seed, the level then plays the recorded input instead of the keyboard.
+     *
+     * @param replay The replay.
+     */
+    public void playReplay(Replay replay) {
+        replay.rewind();
+        loadLevel(replay.getMapPath(), replay.getSeed(), replay);
     }
 
-    public void startGame() {
-        startTime = System.currentTimeMillis();
-        hero = new Hero(100, 100, this); // Example position
-        key = new Key(300, 300); // Example position
+    private void loadLevel(String levelPath, long seed, Replay replay) {
+        unloadLevel();
+        this.levelPath = levelPath;
+        this.levelSeed = seed;
+        this.replay = replay;
+        setScreen(new LoadingScreen(this, levelPath));
     }
 
+    /**
+     * Calculates the bounds of the maze that is loaded, see {@link MazeLoader#calculateMaxCoordinates()}.
+     */
+    public void createMaze() {
+        mazeLoader.calculateMaxCoordinates();
+    }
 
     public void updateGame(float delta) {
         // Update hero and game objects
         hero.update(delta);
 
         // Check if the key is collected
+        Key key = level.getKey();
         if (!hero.isKeyCollected() && hero.getRect().overlaps(key.getRect())) {
             hero.collectKey(key); // Collect the key
         }
@@ -256,8 +290,18 @@ public SpriteBatch getSpriteBatch() {
         return spriteBatch;
     }
 
-    public Map<Point, Integer> getMazeData() {
-        return mazeData;
+    /**
+     * @return The tiles of the current level.
+     */
+    public TileGrid getMazeData() {
+        return level.getMazeData();
+    }
+
+    /**
+     * @return The level being played, it is reused by every level.
+     */
+    public Level getLevel() {
+        return level;
     }
 
     public Hero getHero() {
@@ -285,7 +329,13 @@ public void setHero(Hero hero) {
         this.hero = hero;
     }
 
+    /**
+     * @return The regions of the tiles, taken from the sprite atlas when they are first needed.
+     */
     public Tiles getAllTiles() {
+        if (allTiles == null) {
+            allTiles = new Tiles();
+        }
         return allTiles;
     }
 
@@ -293,12 +343,81 @@ public de.tum.cit.fop.maze.MazeLoader getMazeLoader() {
         return mazeLoader;
     }
 
+    /**
+     * Lets the enemies of every level be advanced on all cores. Meant for large maps, the enemies move the same either way.
+     *
+     * @param parallel {@code true} to turn the parallel enemy update on.
+     */
+    public void setParallelEnemies(boolean parallel) {
+        level.getEnemies().setParallel(parallel);
+    }
+
+    /**
+     * Sets how far around the hero the enemies of every level are simulated, the ones further away are dormant.
+     *
+     * @param radius The distance in tiles, or {@link EnemySystem#ALL_ACTIVE} to simulate every enemy in every step.
+     */
+    public void setEnemyActiveRadius(int radius) {
+        level.getEnemies().setActiveRadius(radius);
+    }
+
+    /**
+     * Plays a replay as soon as the game is created, instead of waiting in the menu.
+     *
+     * @param replay The replay.
+     */
+    public void setPendingReplay(Replay replay) {
+        this.pendingReplay = replay;
+    }
+
+    /**
+     * Sets who is told about the events of every level's simulation next to the sound effects, e.g. to report how a
+     * replay ended.
+     *
+     * @param replayListener The listener, or {@code null} for none.
+     */
+    public void setReplayListener(SimulationListener replayListener) {
+        this.replayListener = replayListener;
+    }
+
+    public SimulationListener getReplayListener() {
+        return replayListener;
+    }
+
+    /**
+     * Records the input of every level from now on, see {@link Replay}. Each level overwrites the file.
+     *
+     * @param recordPath The file to write to, or {@code null} to stop recording.
+     */
+    public void setRecordPath(String recordPath) {
+        this.recordPath = recordPath;
+    }
+
+    public String getRecordPath() {
+        return recordPath;
+    }
+
+    public String getLevelPath() {
+        return levelPath;
+    }
+
+    public long getLevelSeed() {
+        return levelSeed;
+    }
+
+    /**
+     * @return The replay played in the current level, or {@code null} if the keyboard is played.
+     */
+    public Replay getReplay() {
+        return replay;
+    }
+
     public Key getKey() {
-        return key;
+        return level.getKey();
     }
 
     public de.tum.cit.fop.maze.Entry getEntry() {
-        return entry;
+        return level.getEntry();
     }
 
     public de.tum.cit.fop.maze.Languages getLanguages() {
@@ -321,14 +440,6 @@ public void setMinX(double minX) {
         this.minX = minX;
     }
 
-    public void setKey(Key key) {
-        this.key = key;
-    }
-
-    public void setEntry(de.tum.cit.fop.maze.Entry entry) {
-        this.entry = entry;
-    }
-
     public MusicLoader getMusicLoader() {
         return musicLoader;
     }
@@ -0,0 +1,203 @@
+package de.tum.cit.fop.maze;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * The MazeTextParser class parses maps in the text format ("x,y=type" per line) directly from bytes.
+ * It reads through one reused buffer and writes every tile straight into a TileGrid, so no objects are created per line.
+ * Empty lines, also ones of only spaces or tabs, and comments starting with '#' or '!' are skipped. Any other line that
+ * does not match the format, e.g. a named property such as "Width=40", is reported with its line number.
+ */
+public class MazeTextParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_VALUE = 1 << 24; // Larger coordinates do not fit into a TileGrid anyway
+    private static final int MAX_TYPE = Byte.MAX_VALUE;
+
+    // Parser states
+    private static final int LINE_START = 0;
+    private static final int X = 1;
+    private static final int Y = 2;
+    private static final int TYPE = 3;
+    private static final int LINE_END = 4; // After '\r', only '\n' may follow
+    private static final int SKIP = 5; // Comment, ignored until the end of the line
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int state;
+    private int line;
+    private int value;
+    private int digits;
+    private boolean negative;
+    private int x;
+    private int y;
+    private int tiles;
+    private volatile long bytesRead; // Read by the loading screen while a background thread parses
+
+    /**
+     * Parses a whole map and writes its tiles into the grid.
+     *
+     * @param in       The stream to read, it is not closed by this method.
+     * @param mazeData The grid the tiles are written to.
+     * @return The number of tiles that were read.
+     * @throws MazeFormatException    If a line does not match the map format.
+     * @throws InterruptedIOException If the parsing thread was interrupted.
+     * @throws IOException            If the stream cannot be read.
+     */
+    public int parse(InputStream in, TileGrid mazeData) throws IOException {
+        state = LINE_START;
+        line = 1;
+        tiles = 0;
+        bytesRead = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Map parsing was cancelled");
+            }
+            for (int i = 0; i < read; i++) {
+                accept(buffer[i], mazeData);
+            }
+            bytesRead += read;
+        }
+        // The last line does not need a line break
+        if (state == TYPE) {
+            endTile(mazeData);
+        } else if (state == X || state == Y) {
+            throw error("unexpected end of file");
+        }
+        return tiles;
+    }
+
+    /**
+     * @return The number of bytes parsed so far, safe to call from another thread.
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    private void accept(byte c, TileGrid mazeData) throws MazeFormatException {
+        switch (state) {
+            case LINE_START:
+                if (c == '\n') {
+                    line++;
+                } else if (c == '#' || c == '!') {
+                    state = SKIP;
+                } else if (c != '\r' && c != ' ' && c != '\t') { // Blanks before the first number are skipped
+                    state = X;
+                    startNumber();
+                    number(c, ',');
+                }
+                break;
+            case X:
+                if (number(c, ',')) {
+                    x = endNumber();
+                    state = Y;
+                    startNumber();
+                }
+                break;
+            case Y:
+                if (number(c, '=')) {
+                    y = endNumber();
+                    state = TYPE;
+                    startNumber();
+                }
+                break;
+            case TYPE:
+                if (c == '\r') {
+                    endTile(mazeData);
+                    state = LINE_END;
+                } else if (number(c, '\n')) {
+                    endTile(mazeData);
+                    line++;
+                    state = LINE_START;
+                }
+                break;
+            case LINE_END:
+                if (c != '\n') {
+                    throw error("unexpected character '" + (char) c + "' after the tile type");
+                }
+                line++;
+                state = LINE_START;
+                break;
+            case SKIP:
+                if (c == '\n') {
+                    line++;
+                    state = LINE_START;
+                }
+                break;
+        }
+    }
+
+    private void startNumber() {
+        value = 0;
+        digits = 0;
+        negative = false;
+    }
+
+    /**
+     * Feeds one character into the number that is currently parsed.
+     *
+     * @return {@code true} if the character is the terminator of the number.
+     */
+    private boolean number(byte c, char terminator) throws MazeFormatException {
+        if (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            digits++;
+            if (value > MAX_VALUE) {
+                throw error("number out of range");
+            }
+            return false;
+        }
+        if (c == '-' && digits == 0 && !negative && state != TYPE) {
+            negative = true;
+            return false;
+        }
+        if (c == terminator && digits > 0) {
+            return true;
+        }
+        if (digits == 0) {
+            throw error("expected a number but found '" + printable(c) + "'");
+        }
+        throw error("expected '" + printable((byte) terminator) + "' but found '" + printable(c) + "'");
+    }
+
+    private int endNumber() {
+        return negative ? -value : value;
+    }
+
+    private void endTile(TileGrid mazeData) throws MazeFormatException {
+        if (digits == 0) {
+            throw error("missing tile type");
+        }
+        if (value > MAX_TYPE) {
+            throw error("tile type " + value + " out of range");
+        }
+        mazeData.set(x, y, value);
+        tiles++;
+    }
+
+    private static String printable(byte c) {
+        return c == '\n' ? "\\n" : c == '\r' ? "\\r" : String.valueOf((char) c);
+    }
+
+    private MazeFormatException error(String message) {
+        return new MazeFormatException(line, message);
+    }
+
+    /**
+     * Thrown when a map line does not match the text map format.
+     */
+    public static class MazeFormatException extends IOException {
+        private static final long serialVersionUID = 1L;
+        private final int line;
+
+        public MazeFormatException(int line, String message) {
+            super("Malformed map line " + line + ": " + message);
+            this.line = line;
+        }
+
+        public int getLine() {
+            return line;
+        }
+    }
+}
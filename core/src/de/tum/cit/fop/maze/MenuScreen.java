@@ -2,7 +2,6 @@
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
@@ -23,7 +22,7 @@ public class MenuScreen implements Screen {
     private final Stage stage;
     private final Texture backgroundTexture;
     private final SpriteBatch batch;
-    private final Sound clickSound;
+    private final MazeRunnerGame game;
 
     /**
      * Creates a new MenuScreen, which contains buttons like start game, exit game, and settings.
@@ -35,9 +34,7 @@ public MenuScreen(de.tum.cit.fop.maze.MazeRunnerGame game) {
         backgroundTexture = new Texture(Gdx.files.internal("Maze1.jpeg"));
         backgroundTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
         batch = new SpriteBatch();
-
-        // Load the click sound
-        clickSound = Gdx.audio.newSound(Gdx.files.internal("toy-button.mp3"));
+        this.game = game;
 
         Viewport viewport = new ScreenViewport(camera); // Create a viewport with the camera
         stage = new Stage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
@@ -62,10 +59,6 @@ public MenuScreen(de.tum.cit.fop.maze.MazeRunnerGame game) {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 playClickSound();
-                de.tum.cit.fop.maze.Exit.getExitList().clear();
-                de.tum.cit.fop.maze.Enemy.enemyList.clear();
-                Trap.getTrapList().clear();
-                game.getMazeData().clear();
                 game.setHero(new Hero(0, 0, game));
                 game.setScreen(new SelectMapScreen(game));
             }
@@ -91,7 +84,7 @@ public void changed(ChangeEvent event, Actor actor) {
      * Plays the click sound.
      */
     private void playClickSound() {
-        clickSound.play();
+        game.getMusicLoader().playClickSound();
     }
 
     /**
@@ -132,7 +125,6 @@ public void dispose() {
         backgroundTexture.dispose();
         batch.dispose();
         stage.dispose();
-        clickSound.dispose(); // Dispose of the click sound
     }
 
     @Override
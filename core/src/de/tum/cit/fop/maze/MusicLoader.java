@@ -1,35 +1,51 @@
-
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Music;
-import com.badlogic.gdx.math.MathUtils;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.math.RandomXS128;
 
 /**
  * The MusicLoader class is responsible for loading and managing music and sound resources in the MazeRunnerGame.
+ * <p>
+ * Every file is loaded once through the game's {@link AssetManager}. The music tracks are streamed and only opened
+ * when they are first played, so the tracks of screens that are never reached cost nothing. The short effects are
+ * loaded into memory as {@link Sound}s at start, they are played often and have to start without delay.
+ * The effects are played through a {@link SoundScheduler}: the events of the simulation steps only post them, and
+ * {@link #update(float)} plays them once per frame within the voice limits.
+ * <p>
+ * The volumes are set on {@link AudioBus}es: the master bus, and below it the music, the effects and the interface
+ * sounds. A change of the settings only changes the buses; {@link #applyMixer()} then passes the new volumes on in
+ * one go, to the voices of the buses whose gain has changed. Muting a bus stops its voices and closes its streams.
  */
-public class MusicLoader {
-    private Music menuMusic;
-    private Music gameMusic1;
-    private Music gameMusic2;
-    private Music gameMusic3;
-    private Music gameMusic4;
-    private Music gameMusic5;
-    private Music winningMusic;
-    private Music losingMusic;
-    private Music currentGameMusic;
-    private Music lifeLostMusic;
-    private Music coinCollected;
-    private Music walkingSound;
+public class MusicLoader implements SimulationListener {
+    private static final String MENU_MUSIC = "BG.mp3";
+    private static final String[] GAME_MUSIC = {"Ingame.wav"}; // Every level picks one of these
+    private static final String WINNING_MUSIC = "Winning.mp3";
+    private static final String LOSING_MUSIC = "Losing sound.mp3";
+    private static final String WALKING_SOUND = "grasssound.mp3";
+    private static final String LIFE_LOST_SOUND = "hurt.ogg";
+    private static final String COIN_SOUND = "coin.ogg";
+    private static final String CLICK_SOUND = "toy-button.mp3";
+    private static final float VOLUME_STEP = 0.1f;
+
+    private final AudioBus master = new AudioBus(null);
+    private final AudioBus musicBus = new AudioBus(master);
+    private final AudioBus effectBus = new AudioBus(master);
+    private final AudioBus interfaceBus = new AudioBus(master);
+    private int appliedMusicChanges; // The changes of the music gain the open tracks have been given
+    private AssetManager assets;
+    private String currentGameMusic;
+    private final SoundScheduler effects = new SoundScheduler(effectBus);
+    private int walkingSound;
+    private int lifeLostSound;
+    private int coinSound;
+    private Sound clickSound;
     private boolean forbiddenMenu;
     private boolean forbiddenGame;
     private int prevIndex;
-    private List<Music> musicList;
+    private final RandomXS128 random = new RandomXS128(); // Picks the game music, seeded per level
     private de.tum.cit.fop.maze.MazeRunnerGame game;
-    private boolean gameSoundsForbidden;
 
 
     /**
@@ -39,171 +55,259 @@ public MusicLoader() {
 
     }
     /**
-     * Loads music and sound resources for the MazeRunnerGame.
+     * Loads the sound effects for the MazeRunnerGame. The music is loaded when it is first played.
      *
      * @param game The MazeRunnerGame instance.
      */
     public void loadMusic(de.tum.cit.fop.maze.MazeRunnerGame game) {
         this.game = game;
+        this.assets = game.getAssetManager();
         forbiddenMenu = false;
         forbiddenGame = false;
-        gameSoundsForbidden = false;
         prevIndex = -1;
-        musicList = new ArrayList<>();
-        menuMusic = Gdx.audio.newMusic(Gdx.files.internal("BG.mp3"));
-        menuMusic.setLooping(true);
-        gameMusic1 = Gdx.audio.newMusic(Gdx.files.internal("Ingame.wav"));
-        gameMusic1.setLooping(true);
-        gameMusic2 = Gdx.audio.newMusic(Gdx.files.internal("Ingame.wav"));
-        gameMusic2.setLooping(true);
-        gameMusic3 = Gdx.audio.newMusic(Gdx.files.internal("Ingame.wav"));
-        gameMusic3.setLooping(true);
-        gameMusic4 = Gdx.audio.newMusic(Gdx.files.internal("Ingame.wav"));
-        gameMusic4.setLooping(true);
-        gameMusic5 = Gdx.audio.newMusic(Gdx.files.internal("Ingame.wav"));
-        gameMusic5.setLooping(true);
-        winningMusic = Gdx.audio.newMusic(Gdx.files.internal("Winning.mp3"));
-        winningMusic.setLooping(true);
-        losingMusic = Gdx.audio.newMusic(Gdx.files.internal("Losing sound.mp3"));
-        losingMusic.setLooping(true);
-        walkingSound = Gdx.audio.newMusic(Gdx.files.internal("grasssound.mp3"));
-        walkingSound.setLooping(false);
-        lifeLostMusic = Gdx.audio.newMusic(Gdx.files.internal("hurt.ogg"));
-        lifeLostMusic.setLooping(false);
-        coinCollected = Gdx.audio.newMusic(Gdx.files.internal("coin.ogg"));
-        coinCollected.setLooping(false);
-        musicList.add(gameMusic1);
-        musicList.add(gameMusic2);
-        musicList.add(gameMusic3);
-        musicList.add(gameMusic4);
-        musicList.add(gameMusic5);
+        assets.load(WALKING_SOUND, Sound.class);
+        assets.load(LIFE_LOST_SOUND, Sound.class);
+        assets.load(COIN_SOUND, Sound.class);
+        assets.load(CLICK_SOUND, Sound.class);
+        assets.finishLoading();
+        clickSound = assets.get(CLICK_SOUND, Sound.class);
+        // Footsteps only restart when the last ones are over; a hit or the key may interrupt them
+        walkingSound = effects.register(assets.get(WALKING_SOUND, Sound.class), 0.55f, 0.55f, 1, 0);
+        lifeLostSound = effects.register(assets.get(LIFE_LOST_SOUND, Sound.class), 0.95f, 0.25f, 2, 1);
+        coinSound = effects.register(assets.get(COIN_SOUND, Sound.class), 1.34f, 0.1f, 2, 2);
+    }
+
+    /**
+     * Plays the sound effects that were posted since the last frame.
+     *
+     * @param delta The time in seconds since the last frame.
+     */
+    public void update(float delta) {
+        effects.update(delta);
+    }
+
+    /**
+     * Drops the sound effects that were posted but not played yet, for when a level ends.
+     */
+    public void clearEffects() {
+        effects.clearRequests();
+    }
+
+    /**
+     * Returns a music track, opening its stream the first time it is asked for.
+     *
+     * @param fileName The file of the track.
+     * @return The track.
+     */
+    private Music music(String fileName) {
+        if (!assets.isLoaded(fileName, Music.class)) {
+            assets.load(fileName, Music.class);
+            Music music = assets.finishLoadingAsset(fileName);
+            music.setLooping(true);
+            music.setVolume(musicBus.getGain());
+            return music;
+        }
+        return assets.get(fileName, Music.class);
+    }
+
+    /**
+     * @return A music track, or {@code null} if it has not been played yet; there is nothing to pause or stop then.
+     */
+    private Music loadedMusic(String fileName) {
+        return fileName != null && assets.isLoaded(fileName, Music.class) ? assets.get(fileName, Music.class) : null;
+    }
+
+    /**
+     * Stops a track and closes its stream, it is opened again when it is played the next time.
+     */
+    private void release(String fileName) {
+        Music music = loadedMusic(fileName);
+        if (music != null) {
+            music.stop();
+            assets.unload(fileName);
+        }
     }
 
     /**
      * Plays the menu music.
      */
     public void playMenuMusic() {
-        menuMusic.play();
+        if (musicBus.isAudible()) {
+            music(MENU_MUSIC).play();
+        }
     }
 
     /**
      * Plays the game music.
      */
     public void playGameMusic() {
-        currentGameMusic.play();
+        if (musicBus.isAudible()) {
+            music(currentGameMusic).play();
+        }
     }
 
     /**
      * Pauses the menu music.
      */
     public void pauseMenuMusic() {
-        menuMusic.pause();
+        Music music = loadedMusic(MENU_MUSIC);
+        if (music != null) {
+            music.pause();
+        }
     }
 
     /**
      * Stops the menu music.
      */
     public void stopMenuMusic() {
-        menuMusic.stop();
+        Music music = loadedMusic(MENU_MUSIC);
+        if (music != null) {
+            music.stop();
+        }
     }
 
     /**
      * Stops the game music.
      */
     public void stopGameMusic() {
-        currentGameMusic.stop();
+        Music music = loadedMusic(currentGameMusic);
+        if (music != null) {
+            music.stop();
+        }
     }
 
     /**
      * Pauses the game music.
      */
     public void pauseGameMusic() {
-        currentGameMusic.pause();
+        Music music = loadedMusic(currentGameMusic);
+        if (music != null) {
+            music.pause();
+        }
     }
 
     /**
      * Plays the winning music.
      */
     public void playWinningMusic() {
-        winningMusic.play();
+        if (musicBus.isAudible()) {
+            music(WINNING_MUSIC).play();
+        }
     }
 
     /**
      * Stops the winning music.
      */
     public void stopWinningMusic() {
-        winningMusic.stop();
+        Music music = loadedMusic(WINNING_MUSIC);
+        if (music != null) {
+            music.stop();
+        }
     }
     /**
      * Plays the losing music.
      */
     public void playLosingMusic() {
-        losingMusic.play();
+        if (musicBus.isAudible()) {
+            music(LOSING_MUSIC).play();
+        }
     }
 
     /**
      * Stops the losing music.
      */
     public void stopLosingMusic() {
-        losingMusic.stop();
+        Music music = loadedMusic(LOSING_MUSIC);
+        if (music != null) {
+            music.stop();
+        }
+    }
+
+    /**
+     * Seeds the choice of the game music, so a level played with the same seed picks the same music.
+     *
+     * @param seed The seed of the level.
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
     }
 
     /**
-     * Gets the currentMusic instance randomly in the musicList which contains five different game musics.
+     * Picks the game music of the next level at random, another track than last time if there are several.
      */
     public void getCurrentMusic() {
-        int index = MathUtils.random(0,3);
-        while(index == prevIndex){
-            index = MathUtils.random(0,3);
+        int index = 0;
+        if (GAME_MUSIC.length > 1) {
+            do {
+                index = random.nextInt(GAME_MUSIC.length);
+            } while (index == prevIndex);
         }
-        prevIndex=index;
-        currentGameMusic = musicList.get(index);
+        prevIndex = index;
+        currentGameMusic = GAME_MUSIC[index];
+    }
+
+    @Override
+    public void heroWalked() {
+        walkingSoundPlay();
+    }
+
+    @Override
+    public void lifeLost() {
+        lifeLostSoundPlay();
+    }
+
+    @Override
+    public void keyCollected() {
+        coinCollectedSoundPlay();
     }
 
     /**
-     * Plays the life lost sound.
+     * Requests the life lost sound for the next frame.
      */
     public void lifeLostSoundPlay() {
-        lifeLostMusic.play();
+        effects.post(lifeLostSound);
     }
 
     /**
-     * Plays the walking sound.
+     * Requests the walking sound for the next frame. It is not started again while it is still playing.
      */
     public void walkingSoundPlay() {
-        walkingSound.play();
+        effects.post(walkingSound);
     }
 
     /**
-     * Plays the coin collected sound.
+     * Requests the coin collected sound for the next frame.
      */
     public void  coinCollectedSoundPlay() {
-        coinCollected.play();
+        effects.post(coinSound);
+    }
+
+    /**
+     * Plays the click of a menu button.
+     */
+    public void playClickSound() {
+        if (interfaceBus.isAudible()) {
+            clickSound.play(interfaceBus.getGain());
+        }
     }
 
     /**
      * Increases the volume of every music and sound.
      */
     public void volumeUp() {
-        if (menuMusic.getVolume() <1) {
-            menuMusic.setVolume(menuMusic.getVolume() + 0.1f);
-            currentGameMusic.setVolume(currentGameMusic.getVolume() + 0.1f);
-            coinCollected.setVolume(coinCollected.getVolume() + 0.5f);
-            walkingSound.setVolume(walkingSound.getVolume() + 0.1f);
-            lifeLostMusic.setVolume(lifeLostMusic.getVolume() + 0.1f);
+        if (master.getVolume() < 1) {
+            master.setVolume(Math.round((master.getVolume() + VOLUME_STEP) * 10) / 10f);
+            applyMixer();
         }
     }
 
     /**
-     * Decreases the volume of every music and sound.
+     * Decreases the volume of every music and sound, down to one step above silence.
      */
     public void volumeDown() {
-        if (menuMusic.getVolume() > 0.1) {
-            menuMusic.setVolume(menuMusic.getVolume() - 0.1f);
-            currentGameMusic.setVolume(currentGameMusic.getVolume() - 0.1f);
-            coinCollected.setVolume(coinCollected.getVolume() - 0.1f);
-            walkingSound.setVolume(walkingSound.getVolume() - 0.1f);
-            lifeLostMusic.setVolume(lifeLostMusic.getVolume() - 0.1f);
+        if (master.getVolume() > VOLUME_STEP) {
+            master.setVolume(Math.round((master.getVolume() - VOLUME_STEP) * 10) / 10f);
+            applyMixer();
         }
     }
 
@@ -211,42 +315,102 @@ public void volumeDown() {
      * Sets the volume of every music and sound to 0.5.
      */
     public void setVolumes() {
-        menuMusic.setVolume(0.5f);
-        gameMusic1.setVolume(0.5f);
-        gameMusic2.setVolume(0.5f);
-        gameMusic3.setVolume(0.5f);
-        gameMusic4.setVolume(0.5f);
-        gameMusic5.setVolume(0.5f);
-        coinCollected.setVolume(0.5f);
-        walkingSound.setVolume(0.5f);
-        lifeLostMusic.setVolume(0.5f);
+        master.setVolume(0.5f);
+        applyMixer();
+    }
+
+    /**
+     * Passes the gains of the buses on to the voices that are playing. Only the voices of buses whose gain changed
+     * since the last call are touched; the voices of a muted bus are stopped and its music streams closed.
+     */
+    public void applyMixer() {
+        if (appliedMusicChanges != musicBus.getChanges()) {
+            appliedMusicChanges = musicBus.getChanges();
+            boolean audible = musicBus.isAudible();
+            float gain = musicBus.getGain();
+            applyMusicGain(MENU_MUSIC, audible, gain);
+            for (String track : GAME_MUSIC) {
+                applyMusicGain(track, audible, gain);
+            }
+            applyMusicGain(WINNING_MUSIC, audible, gain);
+            applyMusicGain(LOSING_MUSIC, audible, gain);
+        }
+        effects.applyGain();
+    }
+
+    private void applyMusicGain(String fileName, boolean audible, float gain) {
+        if (!audible) {
+            release(fileName);
+            return;
+        }
+        Music music = loadedMusic(fileName);
+        if (music != null) {
+            music.setVolume(gain);
+        }
     }
 
     public boolean isForbiddenMenu() {
         return forbiddenMenu;
     }
 
+    /**
+     * @param forbiddenMenu {@code true} to turn the menu music off; its stream is closed until it is turned on again.
+     */
     public void setForbiddenMenu(boolean forbiddenMenu) {
         this.forbiddenMenu = forbiddenMenu;
+        if (forbiddenMenu) {
+            release(MENU_MUSIC);
+        }
     }
 
     public boolean isForbiddenGame() {
         return forbiddenGame;
     }
 
+    /**
+     * @param forbiddenGame {@code true} to turn the game music off; its streams are closed until it is turned on again.
+     */
     public void setForbiddenGame(boolean forbiddenGame) {
         this.forbiddenGame = forbiddenGame;
+        if (forbiddenGame) {
+            for (String track : GAME_MUSIC) {
+                release(track);
+            }
+        }
     }
 
     public boolean isGameSoundsForbidden() {
-        return gameSoundsForbidden;
+        return effectBus.isMuted();
     }
 
+    /**
+     * @param gameSoundsForbidden {@code true} to mute the sound effects of the game, the ones playing are stopped.
+     */
     public void setGameSoundsForbidden(boolean gameSoundsForbidden) {
-        this.gameSoundsForbidden = gameSoundsForbidden;
+        effectBus.setMuted(gameSoundsForbidden);
+        applyMixer();
+    }
+
+    /**
+     * @return The master volume, between 0 and 1.
+     */
+    public float getVolume() {
+        return master.getVolume();
+    }
+
+    public AudioBus getMasterBus() {
+        return master;
+    }
+
+    public AudioBus getMusicBus() {
+        return musicBus;
+    }
+
+    public AudioBus getEffectBus() {
+        return effectBus;
     }
 
-    public Music getMenuMusic() {
-        return menuMusic;
+    public AudioBus getInterfaceBus() {
+        return interfaceBus;
     }
 }
@@ -0,0 +1,109 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * The PlatformIndex class keeps the platforms of a level sorted into tile columns, and inside every column sorted by
+ * their y-coordinate. Finding the platforms in an area only looks at the columns the area spans and finds the first
+ * candidate in each of them by a binary search, so neither the jump check nor the renderer walks every platform.
+ * A platform that is wider than a tile is filed in every column it covers, but reported only once.
+ */
+public class PlatformIndex {
+    private final IntMap<Array<Rectangle>> columns = new IntMap<>();
+    private float maxHeight;
+    private int size;
+
+    /**
+     * Adds a platform, keeping its columns sorted.
+     *
+     * @param platform The platform.
+     */
+    public void add(Rectangle platform) {
+        for (int column = firstColumn(platform.x), last = lastColumn(platform.x + platform.width); column <= last;
+             column++) {
+            Array<Rectangle> platforms = columns.get(column);
+            if (platforms == null) {
+                platforms = new Array<>(true, 8, Rectangle.class);
+                columns.put(column, platforms);
+            }
+            platforms.insert(lowerBound(platforms, platform.y), platform);
+        }
+        size++;
+        maxHeight = Math.max(maxHeight, platform.height);
+    }
+
+    /**
+     * Collects the platforms that overlap an area, column by column from left to right and from bottom to top.
+     *
+     * @param x      The x-coordinate of the lower left corner of the area.
+     * @param y      The y-coordinate of the lower left corner of the area.
+     * @param width  The width of the area.
+     * @param height The height of the area.
+     * @param out    The array the platforms are added to, it is not cleared.
+     */
+    public void query(float x, float y, float width, float height, Array<Rectangle> out) {
+        int from = firstColumn(x);
+        for (int column = from, last = lastColumn(x + width); column <= last; column++) {
+            Array<Rectangle> platforms = columns.get(column);
+            if (platforms == null) {
+                continue;
+            }
+            Rectangle[] items = platforms.items;
+            // Platforms starting lower than this cannot reach up into the area
+            for (int i = lowerBound(platforms, y - maxHeight); i < platforms.size && items[i].y < y + height; i++) {
+                Rectangle platform = items[i];
+                if (platform.y + platform.height > y && platform.x < x + width && platform.x + platform.width > x
+                        && Math.max(from, firstColumn(platform.x)) == column) {
+                    out.add(platform);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every platform. The columns are kept, so the next level does not allocate them again.
+     */
+    public void clear() {
+        for (Array<Rectangle> platforms : columns.values()) {
+            platforms.clear();
+        }
+        size = 0;
+        maxHeight = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The index of the first platform of a column whose y-coordinate is not below the given one.
+     */
+    private static int lowerBound(Array<Rectangle> platforms, float y) {
+        Rectangle[] items = platforms.items;
+        int low = 0;
+        int high = platforms.size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (items[middle].y < y) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int firstColumn(float x) {
+        return MathUtils.floor(x / TileGrid.TILE_SIZE);
+    }
+
+    /**
+     * @return The column of a right edge; an edge exactly on a tile border belongs to the column before.
+     */
+    private static int lastColumn(float right) {
+        return MathUtils.ceil(right / TileGrid.TILE_SIZE) - 1;
+    }
+}
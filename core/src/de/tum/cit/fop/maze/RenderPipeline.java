@@ -0,0 +1,102 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * The RenderPipeline class draws a frame of the game world in a fixed order of layers.
+ * Ground and walls come from the baked {@link StaticLayerCache}; everything else is submitted into one {@link SpriteQueue}
+ * per layer during the frame and drawn in a single SpriteBatch pass at the end, grouped by texture.
+ * The number of sprites per layer and the draw calls of the last frame are kept for the debug overlay.
+ */
+public class RenderPipeline {
+    /**
+     * The layers in drawing order.
+     */
+    public enum Layer {
+        GROUND, WALLS, PLATFORMS, ITEMS, ACTORS, HUD
+    }
+
+    /**
+     * Draws something that is not a sprite, such as text, on top of the HUD layer inside the batch pass.
+     */
+    public interface Overlay {
+        void draw(SpriteBatch batch);
+    }
+
+    private static final Layer[] LAYERS = Layer.values();
+
+    private final SpriteBatch batch;
+    private final StaticLayerCache staticLayer;
+    private final SpriteQueue[] queues = new SpriteQueue[LAYERS.length];
+    private final int[] drawCounts = new int[LAYERS.length];
+    private Overlay overlay;
+    private int renderCalls;
+
+    /**
+     * Constructs a RenderPipeline.
+     *
+     * @param batch       The batch every queued layer is drawn with.
+     * @param staticLayer The cache that draws the ground and the walls.
+     */
+    public RenderPipeline(SpriteBatch batch, StaticLayerCache staticLayer) {
+        this.batch = batch;
+        this.staticLayer = staticLayer;
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new SpriteQueue();
+        }
+    }
+
+    /**
+     * Returns the queue sprites of a layer are submitted to. Ground and walls are baked and have no useful queue.
+     *
+     * @param layer The layer.
+     * @return The queue of the layer.
+     */
+    public SpriteQueue getQueue(Layer layer) {
+        return queues[layer.ordinal()];
+    }
+
+    public void setOverlay(Overlay overlay) {
+        this.overlay = overlay;
+    }
+
+    /**
+     * Draws all layers and empties the queues.
+     *
+     * @param camera The camera of the game world.
+     */
+    public void render(OrthographicCamera camera) {
+        staticLayer.update(camera); // Once for both static layers
+        drawCounts[Layer.GROUND.ordinal()] = staticLayer.render(camera, false);
+        renderCalls = staticLayer.getRenderCalls();
+        drawCounts[Layer.WALLS.ordinal()] = staticLayer.render(camera, true);
+        renderCalls += staticLayer.getRenderCalls();
+
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        for (int i = Layer.PLATFORMS.ordinal(); i < LAYERS.length; i++) {
+            drawCounts[i] = queues[i].flush(batch);
+        }
+        if (overlay != null) {
+            overlay.draw(batch);
+        }
+        batch.end();
+        renderCalls += batch.renderCalls;
+    }
+
+    /**
+     * @param layer The layer.
+     * @return The number of sprites the layer drew in the last frame.
+     */
+    public int getDrawCount(Layer layer) {
+        return drawCounts[layer.ordinal()];
+    }
+
+    /**
+     * @return The number of draw calls of the last frame, for the baked layers and the batch pass together.
+     */
+    public int getRenderCalls() {
+        return renderCalls;
+    }
+}
@@ -0,0 +1,226 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.ByteArray;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The Replay class is the input log of one level: the map, the seed of the level's random generators and the
+ * {@link InputCommand} of every simulation step. Since a step depends on nothing else, running the same map with the
+ * same seed and commands reproduces the run bit for bit, which makes bugs and performance spikes from the field
+ * reproducible. The checksum of the world after the last step is stored as well, so a replay can tell whether it
+ * ended where the recording did.
+ * <p>
+ * The binary format is a small header followed by the commands as runs of equal commands, each a command byte and the
+ * run length as a variable-length number. Held keys change rarely, so an hour of play fits in a few dozen kilobytes.
+ */
+public class Replay {
+    private static final int MAGIC = 0x4D5A5250; // "MZRP"
+    private static final int VERSION = 1;
+
+    private final String mapPath;
+    private final long seed;
+    private final ByteArray commands;
+    private long checksum;
+    private int position; // The next command to play
+
+    /**
+     * Constructs an empty Replay to record a level into.
+     *
+     * @param mapPath The path of the map file of the level.
+     * @param seed    The seed of the level.
+     */
+    public Replay(String mapPath, long seed) {
+        this(mapPath, seed, new ByteArray(true, 1024));
+    }
+
+    private Replay(String mapPath, long seed, ByteArray commands) {
+        this.mapPath = mapPath;
+        this.seed = seed;
+        this.commands = commands;
+    }
+
+    /**
+     * Appends the command of a step.
+     *
+     * @param command The command, see {@link InputCommand}.
+     */
+    public void record(int command) {
+        commands.add((byte) command);
+    }
+
+    /**
+     * @return {@code true} if there are commands left to play.
+     */
+    public boolean hasNext() {
+        return position < commands.size;
+    }
+
+    /**
+     * @return The command of the next step.
+     */
+    public int next() {
+        return commands.get(position++);
+    }
+
+    /**
+     * @return A replay with the same commands that is played independently of this one, starting at the first step.
+     */
+    public Replay copy() {
+        Replay copy = new Replay(mapPath, seed, commands);
+        copy.checksum = checksum;
+        return copy;
+    }
+
+    /**
+     * Starts playing from the first step again.
+     */
+    public void rewind() {
+        position = 0;
+    }
+
+    /**
+     * Writes the replay to a file.
+     *
+     * @param fileName The name of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(String fileName) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName))) {
+            write(out);
+        }
+    }
+
+    /**
+     * Writes the replay in the binary format.
+     *
+     * @param stream The stream, it is not closed.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(mapPath);
+        out.writeLong(seed);
+        out.writeInt(commands.size);
+        out.writeLong(checksum);
+        byte[] items = commands.items;
+        for (int i = 0; i < commands.size; ) {
+            int run = 1;
+            while (i + run < commands.size && items[i + run] == items[i]) {
+                run++;
+            }
+            out.writeByte(items[i]);
+            writeVarInt(out, run);
+            i += run;
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a replay from a file.
+     *
+     * @param fileName The name of the file.
+     * @return The replay, ready to play.
+     * @throws IOException If the file cannot be read or is not a replay.
+     */
+    public static Replay read(String fileName) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(fileName))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a replay in the binary format.
+     *
+     * @param stream The stream, it is not closed.
+     * @return The replay, ready to play.
+     * @throws IOException If the stream cannot be read or does not hold a replay.
+     */
+    public static Replay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a replay");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        String mapPath = in.readUTF();
+        long seed = in.readLong();
+        int steps = in.readInt();
+        long checksum = in.readLong();
+        if (steps < 0) {
+            throw new IOException("Corrupt replay, negative step count");
+        }
+        ByteArray commands = new ByteArray(true, Math.max(steps, 1));
+        while (commands.size < steps) {
+            byte command = in.readByte();
+            int run = readVarInt(in);
+            if (run <= 0 || run > steps - commands.size) {
+                throw new IOException("Corrupt replay, run of " + run + " steps at step " + commands.size);
+            }
+            for (int i = 0; i < run; i++) {
+                commands.add(command);
+            }
+        }
+        Replay replay = new Replay(mapPath, seed, commands);
+        replay.checksum = checksum;
+        return replay;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt replay, run length too long");
+    }
+
+    public String getMapPath() {
+        return mapPath;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return The number of recorded steps.
+     */
+    public int getSteps() {
+        return commands.size;
+    }
+
+    /**
+     * @return The checksum of the world after the last recorded step, see {@link Simulation#checksum()}.
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(long checksum) {
+        this.checksum = checksum;
+    }
+}
@@ -2,7 +2,6 @@
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
@@ -24,7 +23,6 @@ public class SelectMapScreen implements Screen {
     private final Stage stage;
     private final Texture backgroundImage;
     private final SpriteBatch spriteBatch;
-    private final Sound laudaLassan;
 
     /**
      * @param game the MazeRunnerGame instance.
@@ -43,7 +41,6 @@ public SelectMapScreen(MazeRunnerGame game) {
         layoutTable.setFillParent(true);
         stage.addActor(layoutTable);
 
-        laudaLassan = Gdx.audio.newSound(Gdx.files.internal("toy-button.mp3"));
 
         Label titleLabel = new Label(game.getLanguages().get("selectmap"), game.getSkin(), "title");
         layoutTable.add(titleLabel).padBottom(50).row();
@@ -84,23 +81,14 @@ public void changed(ChangeEvent event, Actor actor) {
     }
 
     /**
-     * Handles the level selection
+     * Handles the level selection, the level is loaded in the background by the loading screen.
      *
      * @param game        The MazeRunnerGame instance.
      * @param levelNumber The selected level number.
      */
     public void handleLevelSelection(MazeRunnerGame game, int levelNumber) {
         String levelPath = "maps/level-" + levelNumber + ".properties";
-        game.getMazeLoader().loadMazeData(Gdx.files.internal(levelPath).path());
-        game.getMusicLoader().pauseMenuMusic();
-
-        if (!game.getMusicLoader().isForbiddenGame()) {
-            game.getMusicLoader().getCurrentMusic();
-            game.getMusicLoader().playGameMusic();
-        }
-        game.createMaze();
-        game.renderMaze();
-        game.goToGame();
+        game.loadLevel(Gdx.files.internal(levelPath).path());
     }
 
     @Override
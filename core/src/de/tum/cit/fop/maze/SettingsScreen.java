@@ -1,6 +1,5 @@
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
@@ -25,7 +24,6 @@ public class SettingsScreen implements Screen {
     private final SpriteBatch batch;
     private final MazeRunnerGame game;
     private TextButton volumeShowButton;
-    private final Sound buttonClickSound; // Sound for button clicks
 
     public SettingsScreen(MazeRunnerGame game) {
         this.game = game;
@@ -35,7 +33,6 @@ public SettingsScreen(MazeRunnerGame game) {
         batch = new SpriteBatch();
         Viewport viewport = new ScreenViewport(camera);
         stage = new Stage(viewport, game.getSpriteBatch());
-        buttonClickSound = Gdx.audio.newSound(Gdx.files.internal("toy-button.mp3")); // Load the sound
 
         Table table = new Table();
         table.setFillParent(true);
@@ -102,7 +99,7 @@ public void clicked(InputEvent event, float x, float y) {
             }
         });
 
-        volumeShowButton = new TextButton(game.getLanguages().get("volume") + Math.round(game.getMusicLoader().getMenuMusic().getVolume() * 10), game.getSkin());
+        volumeShowButton = new TextButton(game.getLanguages().get("volume") + Math.round(game.getMusicLoader().getVolume() * 10), game.getSkin());
         table.add(volumeShowButton).width(400).padBottom(15).row();
 
         TextButton volumeDownButton = new TextButton(game.getLanguages().get("volumedown"), game.getSkin());
@@ -129,11 +126,11 @@ public void clicked(InputEvent event, float x, float y) {
     }
 
     private void playClickSound() {
-        buttonClickSound.play(); // Play the button click sound
+        game.getMusicLoader().playClickSound(); // Played on the interface bus
     }
 
     private void updateVolumeLabel() {
-        volumeShowButton.setText(game.getLanguages().get("volume") + Math.round(game.getMusicLoader().getMenuMusic().getVolume() * 10));
+        volumeShowButton.setText(game.getLanguages().get("volume") + Math.round(game.getMusicLoader().getVolume() * 10));
     }
 
     @Override
@@ -152,7 +149,6 @@ public void dispose() {
         stage.dispose();
         batch.dispose();
         backgroundTexture.dispose();
-        buttonClickSound.dispose(); // Dispose the sound
     }
 
     @Override
@@ -0,0 +1,418 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.IOException;
+
+/**
+ * The Simulation class advances the game world in fixed steps of {@link #STEP} seconds, independent of the frame rate.
+ * Every frame the elapsed time is added to an accumulator and as many whole steps as fit are run; the remainder is
+ * used to interpolate the drawn positions of the characters between the last two steps.
+ * This way the game plays the same at 30 and at 300 frames per second, only the smoothness of the picture changes.
+ * <p>
+ * Enemies, traps and exits are kept in spatial hashes with one cell per tile, so the collision checks of the hero
+ * only look at the objects in the cells around it, however many objects the map has.
+ * The enemies are advanced together by the level's {@link EnemySystem}; the ones near the hero chase it along a
+ * {@link FlowField} that is moved with the hero, and the ones far away from it are dormant.
+ * <p>
+ * A step only depends on the world and its {@link InputCommand}, and every random generator of the level is seeded
+ * with the level seed. So the commands of all steps, recorded into a {@link Replay}, are enough to play a level again
+ * exactly as it went; when the game plays a replay, its commands are used instead of the keyboard. The keyboard
+ * commands come from a {@link CommandBuffer}, which the screen registers for the key events.
+ */
+public class Simulation {
+    public static final float STEP = 1 / 120f;
+    private static final float MAX_FRAME_TIME = 0.25f; // Longer frames are cut, so a stall does not cause a burst of steps
+    private static final int CHASE_RADIUS = 12; // Tiles around the hero in which enemies chase it, about one screen
+    private static final float AIR_SPEED = 70; // Extra horizontal speed while jumping
+
+    private final MazeRunnerGame game;
+    private final Hero hero;
+    private final Level level;
+    private float accumulator;
+    private float alpha;
+    private long tick;
+    private boolean isVulnerable;
+    private float vulnerabilityTimer;
+    private boolean paused;
+    private boolean pausedSinceStep;
+    private boolean sprinting;
+    private final CommandBuffer input = new CommandBuffer();
+    private final Replay replay; // Played instead of the keyboard, if set
+    private Replay recording; // Records the commands of every step, if set
+    private SimulationListener listener = new SimulationListener() {
+    };
+    private final EnemySystem enemies;
+    private final FlowField flowField = new FlowField(CHASE_RADIUS);
+    private final SpatialHash<Trap> trapIndex = new SpatialHash<>(TileGrid.TILE_SIZE, TileGrid.TILE_SIZE);
+    private final SpatialHash<Exit> exitIndex = new SpatialHash<>(TileGrid.TILE_SIZE, TileGrid.TILE_SIZE);
+    private final IntArray nearbyEnemies = new IntArray(false, 16);
+    private final Array<Trap> nearbyTraps = new Array<>(false, 16);
+    private final Array<Exit> nearbyExits = new Array<>(false, 4);
+
+    /**
+     * Constructs a Simulation for the level that is currently loaded.
+     *
+     * @param game The MazeRunnerGame instance.
+     */
+    public Simulation(MazeRunnerGame game) {
+        this.game = game;
+        this.hero = game.getHero();
+        this.level = game.getLevel();
+        this.enemies = level.getEnemies();
+        enemies.setFlowField(flowField);
+        this.isVulnerable = true;
+        this.vulnerabilityTimer = 2f;
+        this.replay = game.getReplay();
+        if (replay == null && game.getRecordPath() != null) {
+            recording = new Replay(game.getLevelPath(), game.getLevelSeed());
+        }
+        // Objects were placed by the loader, start interpolating from where they are now
+        hero.beginStep();
+        for (Trap trap : level.getTraps()) {
+            trapIndex.add(trap, trap.getX(), trap.getY());
+        }
+        for (Exit exit : level.getExits()) {
+            exitIndex.add(exit, exit.getX(), exit.getY());
+        }
+    }
+
+    /**
+     * Runs the simulation steps that are due after a frame and interpolates the characters for drawing.
+     * Nothing is simulated while the game is paused, see {@link #setPaused(boolean)}.
+     *
+     * @param delta The time in seconds since the last frame.
+     * @return The number of steps that were run.
+     */
+    public int advance(float delta) {
+        if (paused) {
+            accumulator = 0;
+            pausedSinceStep = true;
+            input.clear(); // Keys pressed during the pause do not play out afterwards, only the held ones count
+            return 0;
+        }
+        accumulator += Math.min(delta, MAX_FRAME_TIME);
+        int steps = 0;
+        while (accumulator >= STEP) {
+            int command;
+            if (replay != null) {
+                if (!replay.hasNext()) {
+                    accumulator = 0; // The replay is over, the world stays as the recording left it
+                    break;
+                }
+                command = replay.next();
+            } else {
+                command = input.next();
+                if (pausedSinceStep) {
+                    command |= InputCommand.PAUSED;
+                    pausedSinceStep = false;
+                }
+            }
+            step(STEP, command);
+            accumulator -= STEP;
+            steps++;
+            if (replay != null && !replay.hasNext()) {
+                listener.replayEnded(tick, checksum(), replay.getChecksum());
+            }
+        }
+        alpha = accumulator / STEP;
+        hero.interpolate(alpha); // Enemies are interpolated when they are drawn
+        return steps;
+    }
+
+    /**
+     * Pauses or resumes the game. While it is paused {@link #advance(float)} runs no steps and the objects stop
+     * animating.
+     *
+     * @param paused {@code true} to pause the game.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Advances the game world by one step.
+     *
+     * @param delta   The length of the step in seconds.
+     * @param command The input of the step, see {@link InputCommand}.
+     */
+    public void step(float delta, int command) {
+        if (recording != null) {
+            recording.record(command);
+        }
+        hero.beginStep();
+        game.updateGame(delta);
+        hero.setDirection(determineDirection(delta, command));
+
+        // Check collisions during jump
+        hero.checkJumpCollision(level);
+
+        if (!isVulnerable) {
+            vulnerabilityTimer -= delta;
+            if (vulnerabilityTimer < 0f) {
+                isVulnerable = true;
+                vulnerabilityTimer = 2f;
+            }
+        }
+        if (hero.getLives() == 0) {
+            hero.setDead(true);
+        }
+
+        Rectangle heroRect = hero.getRect();
+        float centerX = heroRect.x + heroRect.width / 2;
+        float centerY = heroRect.y + heroRect.height / 2;
+        flowField.update((int) (centerX / TileGrid.TILE_SIZE), (int) (centerY / TileGrid.TILE_SIZE), game.getMazeData());
+        // The camera follows the hero, but lags behind depending on the frame rate; the hero keeps steps reproducible
+        enemies.setFocus(centerX, centerY);
+        enemies.update(delta, game.getMazeData());
+        enemyCollision();
+        checkCollisions();
+        game.getKey().update(delta);
+        game.getEntry().update(delta);
+        tick++;
+    }
+
+    /**
+     * Determines the direction based on the input of the step and updates the hero's position.
+     * The hero is moved through the TileCollider, which stops it at walls and lets it slide along them.
+     * Updates the rectangle for the collision With other kind of objects except wall
+     * @param delta The length of the simulation step in seconds.
+     * @param command The input of the step.
+     * @return The direction in which the hero is moving, {@link Character#IDLE} if it stands still.
+     */
+
+    private int determineDirection(float delta, int command) {
+        int direction = Character.IDLE;
+
+        float speed = 200;
+
+        if (InputCommand.has(command, InputCommand.SPRINT)) {
+            speed = 400;
+            sprinting = true;
+        }
+        float distance = speed * delta;
+        if (InputCommand.has(command, InputCommand.LEFT)) {
+            listener.heroWalked();
+            direction = Character.LEFT;
+            moveHero(-distance, 0);
+        } else if (InputCommand.has(command, InputCommand.RIGHT)) {
+            listener.heroWalked();
+            direction = Character.RIGHT;
+            moveHero(distance, 0);
+        } else if (InputCommand.has(command, InputCommand.DOWN)) {
+            listener.heroWalked();
+            direction = Character.DOWN;
+            moveHero(0, -distance);
+        } else if (InputCommand.has(command, InputCommand.UP)) {
+            listener.heroWalked();
+            direction = Character.UP;
+            moveHero(0, distance);
+        }
+
+        // **Add Jump Functionality**
+        if (InputCommand.has(command, InputCommand.JUMP)) {
+            Rectangle box = hero.getRect();
+            if (TileCollider.sweepY(game.getMazeData(), TileCollider.HERO_SOLIDS, hero.getX(), hero.getY(),
+                    box.width, box.height, distance) == distance) {
+                hero.startJump(); // Start the jump only if there's no wall above
+            }
+        }
+
+        // Update hero's jump during movement
+        hero.updateJump(delta); // Apply jump physics
+
+        if (hero.isJumping() || hero.isFalling()) {
+            // Horizontal movement during jump, on top of the normal movement
+            if (InputCommand.has(command, InputCommand.RIGHT)) {
+                moveHero(AIR_SPEED * delta, 0);
+            } else if (InputCommand.has(command, InputCommand.LEFT)) {
+                moveHero(-AIR_SPEED * delta, 0);
+            }
+
+            // Prevent horizontal movement from exceeding maze boundaries
+            Rectangle mazeRight = level.getRight();
+            Rectangle mazeLeft = level.getLeft();
+
+            if (hero.x < mazeLeft.x) {
+                hero.x = mazeLeft.x; // Clamp to the left boundary
+            }
+            if (hero.x + hero.getRect().width > mazeRight.x) {
+                hero.x = mazeRight.x - hero.getRect().width; // Clamp to the right boundary
+            }
+        }
+
+        hero.getRect().setPosition(hero.getX(), hero.getY());
+
+        return direction;
+    }
+
+    /**
+     *It detects the collision of the hero to the key, entry and exit.
+     * Also plays music where it's needed
+     */
+    private void checkCollisions(){
+        Rectangle heroRect = hero.getRect();
+        nearbyExits.clear();
+        exitIndex.query(heroRect.x, heroRect.y, heroRect.width, heroRect.height, nearbyExits);
+        for (Exit exit : nearbyExits) {
+            if (exit.getRect().overlaps(hero.getRect())){
+                if (!hero.isKeyCollected()){
+                    hero.setX(hero.getPrevX());
+                    hero.setY(hero.getPrevY());
+                }
+                else {
+                    exit.setOpen(true);
+                }
+            }
+        }
+        Key key = level.getKey();
+        if (!key.isCollected() && key.getRect().overlaps(hero.getRect())){
+            listener.keyCollected();
+            hero.setKeyCollected(true);
+            key.collect();
+        }
+        if (game.getEntry().getRect().overlaps(hero.getRect())){
+            game.getEntry().setOpen(true);
+        }
+        if (game.getEntry().getMazeLeaver().overlaps(hero.getRect())){
+            hero.setX(hero.getPrevX());
+            hero.setY(hero.getPrevY());
+        }
+        if (hero.getRect().overlaps(level.getBottom())||hero.getRect().overlaps(level.getLeft())||hero.getRect().overlaps(level.getTop())||hero.getRect().overlaps(level.getRight())){
+            hero.setWinner(true);
+        }
+    }
+
+    /**
+     *It detects the collision of the Hero with the enemies and the traps and if they collide then it loses a life
+     */
+    private void enemyCollision(){
+        Rectangle heroRect = hero.getRect();
+        nearbyEnemies.clear();
+        enemies.query(heroRect, nearbyEnemies);
+        for (int i = 0; i < nearbyEnemies.size; i++) {
+            if (enemies.overlaps(nearbyEnemies.get(i), hero.getRect())&&isVulnerable){
+                listener.lifeLost();
+                hero.setLives(hero.getLives()-1);
+                isVulnerable = false;
+            }
+        }
+        nearbyTraps.clear();
+        trapIndex.query(heroRect.x, heroRect.y, heroRect.width, heroRect.height, nearbyTraps);
+        for (Trap trap : nearbyTraps) {
+            if (trap.getRect().overlaps(hero.getRect())&&isVulnerable){
+                listener.lifeLost();
+                hero.setLives(hero.getLives()-1);
+                isVulnerable = false;
+            }
+        }
+    }
+
+    /**
+     * Moves the hero as far as the walls let it. Every tile except walls is walkable for the hero.
+     * @param dx The horizontal distance in world units.
+     * @param dy The vertical distance in world units.
+     */
+    private void moveHero(float dx, float dy) {
+        TileCollider.move(hero, dx, dy, game.getMazeData(), TileCollider.HERO_SOLIDS);
+    }
+
+    /**
+     * Writes the commands recorded so far to the record file, together with the checksum of the world now.
+     * Does nothing if the level is not recorded.
+     */
+    public void finishRecording() {
+        if (recording == null) {
+            return;
+        }
+        recording.setChecksum(checksum());
+        try {
+            recording.write(game.getRecordPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        recording = null;
+    }
+
+    /**
+     * Sums up the state of the world in one number, bit for bit: the hero, its lives and key, and every enemy.
+     * Two runs that took different ways end with different checksums.
+     *
+     * @return The checksum.
+     */
+    public long checksum() {
+        long hash = tick;
+        hash = hash * 0x100000001B3L + Float.floatToIntBits(hero.getX());
+        hash = hash * 0x100000001B3L + Float.floatToIntBits(hero.getY());
+        hash = hash * 0x100000001B3L + hero.getLives();
+        hash = hash * 0x100000001B3L + (hero.isKeyCollected() ? 1 : 0);
+        for (int i = 0; i < enemies.size(); i++) {
+            hash = hash * 0x100000001B3L + Float.floatToIntBits(enemies.getX(i));
+            hash = hash * 0x100000001B3L + Float.floatToIntBits(enemies.getY(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Sets who is told about the audible events of the steps, such as lost lives, and about the end of a replay.
+     *
+     * @param listener The listener.
+     */
+    public void setListener(SimulationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return The buffer the keyboard commands of the steps are taken from, it has to receive the key events.
+     */
+    public CommandBuffer getInput() {
+        return input;
+    }
+
+    /**
+     * @return How far the render time is into the next step, between 0 and 1.
+     */
+    public float getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * @return The number of steps run since the level started.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public EnemySystem getEnemies() {
+        return enemies;
+    }
+
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
+    public SpatialHash<Trap> getTrapIndex() {
+        return trapIndex;
+    }
+
+    public SpatialHash<Exit> getExitIndex() {
+        return exitIndex;
+    }
+
+    public boolean isVulnerable() {
+        return isVulnerable;
+    }
+
+    /**
+     * @return {@code true} once the hero sprinted, the camera follows faster from then on.
+     */
+    public boolean isSprinting() {
+        return sprinting;
+    }
+}
@@ -0,0 +1,74 @@
+package de.tum.cit.fop.maze;
+
+/**
+ * The SimulationListener interface is told about the events of a simulation step that the player should hear, and
+ * about the end of a replay. The Simulation itself plays and prints nothing, so it runs the same with sound, muted or
+ * without any audio device at all; the game screen passes the {@link MusicLoader}, the headless runner passes nothing.
+ */
+public interface SimulationListener {
+    /**
+     * Called in every step in which the hero walks.
+     */
+    default void heroWalked() {
+    }
+
+    /**
+     * Called when the hero loses a life to an enemy or a trap.
+     */
+    default void lifeLost() {
+    }
+
+    /**
+     * Called when the hero picks up the key.
+     */
+    default void keyCollected() {
+    }
+
+    /**
+     * Called after the last step of a replay. The replay played out like its recording if the checksums are equal.
+     *
+     * @param steps            The number of steps that were played.
+     * @param checksum         The {@link Simulation#checksum()} of the world now.
+     * @param recordedChecksum The checksum the recording ended with.
+     */
+    default void replayEnded(long steps, long checksum, long recordedChecksum) {
+    }
+
+    /**
+     * Returns a listener that tells both given listeners about every event, the first one first.
+     *
+     * @param first  The first listener.
+     * @param second The second listener, or {@code null}.
+     * @return The combined listener, or the first one if there is no second one.
+     */
+    static SimulationListener both(SimulationListener first, SimulationListener second) {
+        if (second == null) {
+            return first;
+        }
+        return new SimulationListener() {
+            @Override
+            public void heroWalked() {
+                first.heroWalked();
+                second.heroWalked();
+            }
+
+            @Override
+            public void lifeLost() {
+                first.lifeLost();
+                second.lifeLost();
+            }
+
+            @Override
+            public void keyCollected() {
+                first.keyCollected();
+                second.keyCollected();
+            }
+
+            @Override
+            public void replayEnded(long steps, long checksum, long recordedChecksum) {
+                first.replayEnded(steps, checksum, recordedChecksum);
+                second.replayEnded(steps, checksum, recordedChecksum);
+            }
+        };
+    }
+}
@@ -0,0 +1,232 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.audio.Sound;
+
+import java.util.Arrays;
+
+/**
+ * The SoundScheduler class decides which of the requested sound effects are actually played. Game code only posts
+ * requests with {@link #post(int)}, which costs nothing but a flag, and {@link #update(float)} submits them to the
+ * audio backend together once per frame. A request of an effect that was posted several times since the last update
+ * is played once.
+ * <p>
+ * Every effect has a minimum time between two starts, a number of voices it may play at the same time and a
+ * priority. The scheduler keeps at most {@link #MAX_VOICES} voices; when they are all taken, a new effect steals the
+ * oldest voice of the lowest priority that is not above its own, or is dropped if there is none. Since a
+ * {@link Sound} cannot tell when a voice ended, every effect is registered with its length and its voices are
+ * counted as playing for that long.
+ * <p>
+ * The effects are played at the gain of an {@link AudioBus}. When the gain changes, the voices that are playing get
+ * the new one; when the bus is muted they are stopped, and nothing is started until it is audible again.
+ */
+public class SoundScheduler {
+    public static final int MAX_VOICES = 8;
+
+    private final AudioBus bus;
+    private int appliedChanges; // The changes of the bus gain the voices have been given
+    // The effects, indexed by the number register returns
+    private Sound[] sounds = new Sound[4];
+    private float[] lengths = new float[4];
+    private float[] minIntervals = new float[4];
+    private int[] voiceLimits = new int[4];
+    private int[] priorities = new int[4];
+    private float[] lastStart = new float[4];
+    private boolean[] requested = new boolean[4];
+    private int effectCount;
+    // The voices that are playing, in the order they were started
+    private final long[] voiceIds = new long[MAX_VOICES];
+    private final int[] voiceEffects = new int[MAX_VOICES];
+    private final float[] voiceEnds = new float[MAX_VOICES];
+    private int voiceCount;
+    private float time;
+    private long started;
+    private long stolen;
+    private long dropped;
+
+    /**
+     * Constructs a SoundScheduler without effects.
+     *
+     * @param bus The bus the effects are played on.
+     */
+    public SoundScheduler(AudioBus bus) {
+        this.bus = bus;
+        this.appliedChanges = bus.getChanges();
+    }
+
+    /**
+     * Adds an effect that can be posted.
+     *
+     * @param sound       The sound of the effect.
+     * @param length      The length of the sound in seconds.
+     * @param minInterval The time in seconds before the effect is started again.
+     * @param voiceLimit  The number of voices the effect may play at once; the oldest one is cut for another start.
+     * @param priority    The priority, effects of a higher one take the voices of lower ones when all are taken.
+     * @return The number of the effect, for {@link #post(int)}.
+     */
+    public int register(Sound sound, float length, float minInterval, int voiceLimit, int priority) {
+        if (effectCount == sounds.length) {
+            int capacity = effectCount * 2;
+            sounds = Arrays.copyOf(sounds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            minIntervals = Arrays.copyOf(minIntervals, capacity);
+            voiceLimits = Arrays.copyOf(voiceLimits, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            lastStart = Arrays.copyOf(lastStart, capacity);
+            requested = Arrays.copyOf(requested, capacity);
+        }
+        int effect = effectCount++;
+        sounds[effect] = sound;
+        lengths[effect] = length;
+        minIntervals[effect] = minInterval;
+        voiceLimits[effect] = Math.max(1, voiceLimit);
+        priorities[effect] = priority;
+        lastStart[effect] = Float.NEGATIVE_INFINITY;
+        return effect;
+    }
+
+    /**
+     * Requests an effect to be played at the next update.
+     *
+     * @param effect The number of the effect.
+     */
+    public void post(int effect) {
+        requested[effect] = true;
+    }
+
+    /**
+     * Plays the requested effects that are allowed to start. Called once per frame.
+     *
+     * @param delta The time in seconds since the last update.
+     */
+    public void update(float delta) {
+        time += delta;
+        // Forget the voices that have ended, keeping the others in the order they were started
+        int kept = 0;
+        for (int i = 0; i < voiceCount; i++) {
+            if (voiceEnds[i] > time) {
+                voiceIds[kept] = voiceIds[i];
+                voiceEffects[kept] = voiceEffects[i];
+                voiceEnds[kept] = voiceEnds[i];
+                kept++;
+            }
+        }
+        voiceCount = kept;
+        applyGain();
+        if (!bus.isAudible()) {
+            clearRequests();
+            return;
+        }
+        for (int effect = 0; effect < effectCount; effect++) {
+            if (requested[effect]) {
+                requested[effect] = false;
+                if (time - lastStart[effect] >= minIntervals[effect]) {
+                    start(effect);
+                }
+            }
+        }
+    }
+
+    private void start(int effect) {
+        int voices = 0;
+        int oldest = -1;
+        for (int i = 0; i < voiceCount; i++) {
+            if (voiceEffects[i] == effect) {
+                voices++;
+                if (oldest < 0) {
+                    oldest = i;
+                }
+            }
+        }
+        if (voices >= voiceLimits[effect]) {
+            stop(oldest);
+            stolen++;
+        } else if (voiceCount == MAX_VOICES) {
+            int victim = -1;
+            for (int i = 0; i < voiceCount; i++) {
+                int priority = priorities[voiceEffects[i]];
+                if (priority <= priorities[effect] && (victim < 0 || priority < priorities[voiceEffects[victim]])) {
+                    victim = i;
+                }
+            }
+            if (victim < 0) {
+                dropped++;
+                return;
+            }
+            stop(victim);
+            stolen++;
+        }
+        long id = sounds[effect].play(bus.getGain());
+        lastStart[effect] = time;
+        started++;
+        if (id != -1) { // -1 if the backend had no voice left, then there is nothing to track
+            voiceIds[voiceCount] = id;
+            voiceEffects[voiceCount] = effect;
+            voiceEnds[voiceCount] = time + lengths[effect];
+            voiceCount++;
+        }
+    }
+
+    private void stop(int voice) {
+        sounds[voiceEffects[voice]].stop(voiceIds[voice]);
+        voiceCount--;
+        System.arraycopy(voiceIds, voice + 1, voiceIds, voice, voiceCount - voice);
+        System.arraycopy(voiceEffects, voice + 1, voiceEffects, voice, voiceCount - voice);
+        System.arraycopy(voiceEnds, voice + 1, voiceEnds, voice, voiceCount - voice);
+    }
+
+    /**
+     * Passes a changed gain of the bus on to the voices that are playing, or stops them if the bus was muted.
+     * Does nothing if the gain is the one the voices have.
+     */
+    public void applyGain() {
+        if (appliedChanges == bus.getChanges()) {
+            return;
+        }
+        appliedChanges = bus.getChanges();
+        if (!bus.isAudible()) {
+            while (voiceCount > 0) {
+                stop(voiceCount - 1);
+            }
+            return;
+        }
+        float gain = bus.getGain();
+        for (int i = 0; i < voiceCount; i++) {
+            sounds[voiceEffects[i]].setVolume(voiceIds[i], gain);
+        }
+    }
+
+    /**
+     * Drops the requests that were not played yet, for when the game leaves a level.
+     */
+    public void clearRequests() {
+        Arrays.fill(requested, false);
+    }
+
+    /**
+     * @return The number of voices that are counted as playing.
+     */
+    public int getVoiceCount() {
+        return voiceCount;
+    }
+
+    /**
+     * @return The number of effects that were started.
+     */
+    public long getStarted() {
+        return started;
+    }
+
+    /**
+     * @return The number of voices that were cut to start another effect.
+     */
+    public long getStolen() {
+        return stolen;
+    }
+
+    /**
+     * @return The number of starts that were dropped because all voices had a higher priority.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+}
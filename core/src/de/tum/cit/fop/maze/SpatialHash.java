@@ -0,0 +1,131 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * The SpatialHash class sorts objects into square cells of a uniform grid, so that the objects inside an area
+ * can be found without looking at every object of the map. Moving objects are re-filed with {@link #move},
+ * which only touches the hash when the object crosses into another cell.
+ * Objects are filed under the cell of their lower left corner; queries are widened by the size of the largest object,
+ * so every object that overlaps the queried area is found.
+ *
+ * @param <T> The type of the stored objects.
+ */
+public class SpatialHash<T> {
+    private final float cellSize;
+    private final float maxObjectSize;
+    private final LongMap<Array<T>> cells = new LongMap<>();
+    private int size;
+
+    /**
+     * Constructs an empty SpatialHash.
+     *
+     * @param cellSize      The side length of a cell in world units.
+     * @param maxObjectSize The width and height of the largest object that will be stored.
+     */
+    public SpatialHash(float cellSize, float maxObjectSize) {
+        this.cellSize = cellSize;
+        this.maxObjectSize = maxObjectSize;
+    }
+
+    /**
+     * Adds an object at the given position.
+     *
+     * @param object The object to add.
+     * @param x      The x-coordinate of the lower left corner of the object.
+     * @param y      The y-coordinate of the lower left corner of the object.
+     */
+    public void add(T object, float x, float y) {
+        long key = key(cell(x), cell(y));
+        Array<T> bucket = cells.get(key);
+        if (bucket == null) {
+            bucket = new Array<>(false, 8);
+            cells.put(key, bucket);
+        }
+        bucket.add(object);
+        size++;
+    }
+
+    /**
+     * Removes an object that was added at the given position.
+     *
+     * @param object The object to remove.
+     * @param x      The x-coordinate the object was added or last moved to.
+     * @param y      The y-coordinate the object was added or last moved to.
+     * @return {@code true} if the object was found.
+     */
+    public boolean remove(T object, float x, float y) {
+        Array<T> bucket = cells.get(key(cell(x), cell(y)));
+        if (bucket != null && bucket.removeValue(object, true)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates the cell of an object after it moved. Nothing happens as long as it stays in the same cell.
+     *
+     * @param object The object that moved.
+     * @param oldX   The x-coordinate the object was filed under.
+     * @param oldY   The y-coordinate the object was filed under.
+     * @param newX   The new x-coordinate.
+     * @param newY   The new y-coordinate.
+     */
+    public void move(T object, float oldX, float oldY, float newX, float newY) {
+        if (cell(oldX) == cell(newX) && cell(oldY) == cell(newY)) {
+            return;
+        }
+        if (remove(object, oldX, oldY)) {
+            add(object, newX, newY);
+        }
+    }
+
+    /**
+     * Collects every object whose cell overlaps the given area. The result may contain objects that are slightly outside.
+     *
+     * @param x      The x-coordinate of the lower left corner of the area.
+     * @param y      The y-coordinate of the lower left corner of the area.
+     * @param width  The width of the area.
+     * @param height The height of the area.
+     * @param out    The array the objects are added to, it is not cleared.
+     */
+    public void query(float x, float y, float width, float height, Array<T> out) {
+        int fromX = cell(x - maxObjectSize);
+        int fromY = cell(y - maxObjectSize);
+        int toX = cell(x + width);
+        int toY = cell(y + height);
+        for (int cellY = fromY; cellY <= toY; cellY++) {
+            for (int cellX = fromX; cellX <= toX; cellX++) {
+                Array<T> bucket = cells.get(key(cellX, cellY));
+                if (bucket != null) {
+                    out.addAll(bucket);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every object. The cells are kept, so refilling the hash every frame does not allocate.
+     */
+    public void clear() {
+        for (Array<T> bucket : cells.values()) {
+            bucket.clear();
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int cell(float world) {
+        return MathUtils.floor(world / cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,89 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.Arrays;
+
+/**
+ * The SpriteQueue class collects the sprites of one render layer before they are drawn.
+ * When the layer is flushed the sprites are grouped by texture, keeping their order within a texture,
+ * so the SpriteBatch only has to switch textures once per texture instead of whenever the objects alternate.
+ * The arrays grow to the largest layer seen and are reused, submitting sprites does not allocate.
+ */
+public class SpriteQueue {
+    private TextureRegion[] regions = new TextureRegion[64];
+    private float[] bounds = new float[64 * 4];
+    private int size;
+    private Texture[] textures = new Texture[4];
+
+    /**
+     * Queues a sprite, with the same arguments as {@link SpriteBatch#draw(TextureRegion, float, float, float, float)}.
+     *
+     * @param region The region to draw.
+     * @param x      The x-coordinate in world units.
+     * @param y      The y-coordinate in world units.
+     * @param width  The width in world units.
+     * @param height The height in world units.
+     */
+    public void draw(TextureRegion region, float x, float y, float width, float height) {
+        if (size == regions.length) {
+            regions = Arrays.copyOf(regions, size * 2);
+            bounds = Arrays.copyOf(bounds, size * 8);
+        }
+        regions[size] = region;
+        int i = size * 4;
+        bounds[i] = x;
+        bounds[i + 1] = y;
+        bounds[i + 2] = width;
+        bounds[i + 3] = height;
+        size++;
+    }
+
+    /**
+     * Draws the queued sprites grouped by texture and empties the queue. The batch must be drawing.
+     *
+     * @param batch The batch to draw to.
+     * @return The number of sprites that were drawn.
+     */
+    public int flush(SpriteBatch batch) {
+        // Collect the textures in the order they were first used, layers only use a handful of them
+        int textureCount = 0;
+        for (int i = 0; i < size; i++) {
+            Texture texture = regions[i].getTexture();
+            if (indexOf(texture, textureCount) < 0) {
+                if (textureCount == textures.length) {
+                    textures = Arrays.copyOf(textures, textureCount * 2);
+                }
+                textures[textureCount++] = texture;
+            }
+        }
+        for (int t = 0; t < textureCount; t++) {
+            for (int i = 0; i < size; i++) {
+                if (regions[i].getTexture() == textures[t]) {
+                    int b = i * 4;
+                    batch.draw(regions[i], bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3]);
+                }
+            }
+        }
+        int drawn = size;
+        Arrays.fill(regions, 0, size, null);
+        Arrays.fill(textures, 0, textureCount, null);
+        size = 0;
+        return drawn;
+    }
+
+    private int indexOf(Texture texture, int count) {
+        for (int i = 0; i < count; i++) {
+            if (textures[i] == texture) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,279 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * The StaticLayerCache class bakes the ground and the walls of the maze into SpriteCaches, chunk by chunk of the TileGrid.
+ * The geometry is uploaded once and every frame costs one draw call per chunk instead of one batch flush per tile.
+ * <p>
+ * The chunks share a few large SpriteCaches, the pages, so there is one shader and one mesh per page and not per chunk.
+ * Every page has a fixed number of slots; a slot is one cache id with room for a whole chunk, the ground first and
+ * the walls behind it, so the RenderPipeline can draw them as separate layers.
+ * <p>
+ * Only the chunks around the camera are baked. The ones in view are baked at once, the ones around it a few per frame
+ * ahead of the camera, and chunks that fall far behind it give their slot back. A chunk is only baked again when its
+ * own tiles changed, see {@link TileGrid#getChunkVersion(int, int)}; for streamed maps only resident chunks are baked.
+ */
+public class StaticLayerCache implements Disposable {
+    private static final int SPRITES_PER_CHUNK = 2 * TileGrid.CHUNK_SIZE * TileGrid.CHUNK_SIZE; // Grass and wall per tile
+    private static final int CHUNKS_PER_PAGE = 16;
+    private static final int BAKE_MARGIN = 1; // Chunks around the view that are baked ahead of the camera
+    private static final int KEEP_MARGIN = 2; // Chunks further away from the view give their slot back
+    private static final int BAKES_PER_UPDATE = 2; // Chunks out of view baked per update at most
+
+    private final MazeRunnerGame game;
+    private final LongMap<ChunkCache> caches = new LongMap<>();
+    private final Array<ChunkCache> freeSlots = new Array<>(false, CHUNKS_PER_PAGE);
+    private final Array<ChunkCache> released = new Array<>(false, 16);
+    private final Array<SpriteCache> pages = new Array<>(false, 4);
+    private final Rectangle view = new Rectangle();
+    private TileGrid builtGrid;
+    // The chunks in view at the last update
+    private int fromX;
+    private int fromY;
+    private int toX = -1;
+    private int toY = -1;
+    private int renderCalls;
+
+    /**
+     * One slot of a page and the chunk that is baked into it.
+     */
+    private static class ChunkCache {
+        private SpriteCache page;
+        private int cacheId;
+        private int chunkX;
+        private int chunkY;
+        private int version; // The chunk version of the grid the slot was baked from
+        private int groundCount;
+        private int wallCount;
+    }
+
+    /**
+     * Constructs an empty StaticLayerCache, the chunks are baked by {@link #update(OrthographicCamera)}.
+     *
+     * @param game The MazeRunnerGame instance.
+     */
+    public StaticLayerCache(MazeRunnerGame game) {
+        this.game = game;
+    }
+
+    /**
+     * Makes the baked chunks follow the camera. The chunks in view are baked before this returns, the ones around it
+     * at most {@value #BAKES_PER_UPDATE} per call. Must be called once per frame before the layers are rendered.
+     *
+     * @param camera The camera of the game world.
+     * @return {@code true} if every chunk around the view is baked, {@code false} if some are left for the next calls.
+     */
+    public boolean update(OrthographicCamera camera) {
+        TileGrid mazeData = game.getMazeData();
+        if (mazeData != builtGrid) {
+            releaseAll();
+            builtGrid = mazeData;
+        }
+        VisibilityCuller.getViewBounds(camera, view);
+        fromX = MathUtils.floor(view.x / TileGrid.TILE_SIZE) >> TileGrid.CHUNK_SHIFT;
+        fromY = MathUtils.floor(view.y / TileGrid.TILE_SIZE) >> TileGrid.CHUNK_SHIFT;
+        toX = MathUtils.floor((view.x + view.width) / TileGrid.TILE_SIZE) >> TileGrid.CHUNK_SHIFT;
+        toY = MathUtils.floor((view.y + view.height) / TileGrid.TILE_SIZE) >> TileGrid.CHUNK_SHIFT;
+
+        for (ChunkCache cache : caches.values()) {
+            if (!isNear(cache.chunkX, cache.chunkY, KEEP_MARGIN) || !isBakeable(mazeData, cache.chunkX, cache.chunkY)) {
+                released.add(cache);
+            }
+        }
+        for (ChunkCache cache : released) {
+            caches.remove(key(cache.chunkX, cache.chunkY));
+            freeSlots.add(cache);
+        }
+        released.clear();
+
+        int budget = BAKES_PER_UPDATE;
+        boolean complete = true;
+        for (int chunkY = fromY - BAKE_MARGIN; chunkY <= toY + BAKE_MARGIN; chunkY++) {
+            for (int chunkX = fromX - BAKE_MARGIN; chunkX <= toX + BAKE_MARGIN; chunkX++) {
+                if (!isBakeable(mazeData, chunkX, chunkY)) {
+                    continue;
+                }
+                ChunkCache cache = caches.get(key(chunkX, chunkY));
+                int version = mazeData.getChunkVersion(chunkX, chunkY);
+                if (cache != null && cache.version == version) {
+                    continue;
+                }
+                if (!isNear(chunkX, chunkY, 0)) {
+                    if (budget == 0) {
+                        complete = false;
+                        continue;
+                    }
+                    budget--;
+                }
+                if (cache == null) {
+                    cache = takeSlot();
+                    cache.chunkX = chunkX;
+                    cache.chunkY = chunkY;
+                    caches.put(key(chunkX, chunkY), cache);
+                }
+                cache.version = version;
+                bake(cache);
+            }
+        }
+        return complete;
+    }
+
+    /**
+     * Draws the ground or the walls of the chunks in view, as of the last {@link #update(OrthographicCamera)}.
+     * The chunks of one page are drawn between a single begin and end.
+     *
+     * @param camera The camera used for the projection.
+     * @param walls  {@code true} to draw the walls, {@code false} to draw the ground.
+     * @return The number of sprites drawn.
+     */
+    public int render(OrthographicCamera camera, boolean walls) {
+        renderCalls = 0;
+        int sprites = 0;
+        for (int i = 0; i < pages.size; i++) {
+            SpriteCache page = pages.get(i);
+            boolean drawing = false;
+            for (int chunkY = fromY; chunkY <= toY; chunkY++) {
+                for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                    ChunkCache cache = caches.get(key(chunkX, chunkY));
+                    int count = cache == null ? 0 : walls ? cache.wallCount : cache.groundCount;
+                    if (count == 0 || cache.page != page) {
+                        continue;
+                    }
+                    if (!drawing) {
+                        page.setProjectionMatrix(camera.combined);
+                        page.begin();
+                        drawing = true;
+                    }
+                    page.draw(cache.cacheId, walls ? cache.groundCount : 0, count);
+                    sprites += count;
+                }
+            }
+            if (drawing) {
+                page.end();
+                renderCalls += page.renderCalls;
+            }
+        }
+        return sprites;
+    }
+
+    /**
+     * Returns whether a chunk lies in the view of the last update or the given number of chunks around it.
+     */
+    private boolean isNear(int chunkX, int chunkY, int margin) {
+        return chunkX >= fromX - margin && chunkX <= toX + margin && chunkY >= fromY - margin && chunkY <= toY + margin;
+    }
+
+    /**
+     * Returns whether a chunk has anything to bake: a resident chunk of a streamed map, or otherwise a chunk that
+     * overlaps the padded area computed by MazeLoader, the ground reaches past the maze.
+     */
+    private boolean isBakeable(TileGrid mazeData, int chunkX, int chunkY) {
+        if (mazeData.isStreamed()) {
+            return mazeData.isResident(chunkX << TileGrid.CHUNK_SHIFT, chunkY << TileGrid.CHUNK_SHIFT);
+        }
+        return chunkX >= (int) game.getMinX() >> TileGrid.CHUNK_SHIFT && chunkX <= (int) game.getMaxX() >> TileGrid.CHUNK_SHIFT
+                && chunkY >= (int) game.getMinY() >> TileGrid.CHUNK_SHIFT && chunkY <= (int) game.getMaxY() >> TileGrid.CHUNK_SHIFT;
+    }
+
+    private static long key(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+    }
+
+    private ChunkCache takeSlot() {
+        if (freeSlots.isEmpty()) {
+            addPage();
+        }
+        return freeSlots.pop();
+    }
+
+    /**
+     * Creates a page and reserves its slots. A cache of a SpriteCache that is not the last one cannot grow when it is
+     * baked again, so every slot is filled with room for a whole chunk up front.
+     */
+    private void addPage() {
+        SpriteCache page = new SpriteCache(CHUNKS_PER_PAGE * SPRITES_PER_CHUNK, false);
+        TextureRegion filler = game.getAllTiles().getGrass();
+        for (int i = 0; i < CHUNKS_PER_PAGE; i++) {
+            page.beginCache();
+            for (int n = 0; n < SPRITES_PER_CHUNK; n++) {
+                page.add(filler, 0, 0, 0, 0);
+            }
+            ChunkCache cache = new ChunkCache();
+            cache.page = page;
+            cache.cacheId = page.endCache();
+            freeSlots.add(cache);
+        }
+        pages.add(page);
+    }
+
+    /**
+     * Records the grass and then the walls of one chunk into its slot.
+     */
+    private void bake(ChunkCache cache) {
+        TileGrid mazeData = game.getMazeData();
+        Tiles tiles = game.getAllTiles();
+        boolean streamed = mazeData.isStreamed();
+        int startX = cache.chunkX << TileGrid.CHUNK_SHIFT;
+        int startY = cache.chunkY << TileGrid.CHUNK_SHIFT;
+        SpriteCache page = cache.page;
+        cache.groundCount = 0;
+        cache.wallCount = 0;
+        page.beginCache(cache.cacheId);
+        for (int y = startY; y < startY + TileGrid.CHUNK_SIZE; y++) {
+            for (int x = startX; x < startX + TileGrid.CHUNK_SIZE; x++) {
+                if (streamed || (x >= game.getMinX() && x <= game.getMaxX() && y >= game.getMinY() && y <= game.getMaxY())) {
+                    page.add(tiles.getGrass(), x * TileGrid.TILE_SIZE, y * TileGrid.TILE_SIZE, TileGrid.TILE_SIZE, TileGrid.TILE_SIZE);
+                    cache.groundCount++;
+                }
+            }
+        }
+        for (int y = startY; y < startY + TileGrid.CHUNK_SIZE; y++) {
+            for (int x = startX; x < startX + TileGrid.CHUNK_SIZE; x++) {
+                if (mazeData.get(x, y) == TileGrid.WALL && mazeData.isResident(x, y)) {
+                    page.add(tiles.getWall(), x * TileGrid.TILE_SIZE, y * TileGrid.TILE_SIZE, TileGrid.TILE_SIZE, TileGrid.TILE_SIZE);
+                    cache.wallCount++;
+                }
+            }
+        }
+        page.endCache();
+    }
+
+    private void releaseAll() {
+        for (ChunkCache cache : caches.values()) {
+            freeSlots.add(cache);
+        }
+        caches.clear();
+    }
+
+    /**
+     * @return The number of draw calls of the last {@link #render(OrthographicCamera, boolean)}.
+     */
+    public int getRenderCalls() {
+        return renderCalls;
+    }
+
+    /**
+     * @return The number of SpriteCaches the chunks are baked into, each holds a mesh and a shader.
+     */
+    public int getPageCount() {
+        return pages.size;
+    }
+
+    @Override
+    public void dispose() {
+        releaseAll();
+        freeSlots.clear();
+        for (SpriteCache page : pages) {
+            page.dispose();
+        }
+        pages.clear();
+    }
+}
@@ -0,0 +1,143 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * The TileCollider class moves axis-aligned boxes through the tile grid without letting them enter solid tiles.
+ * A movement is swept one axis after the other: every tile the box would pass on its way is checked, so nothing can
+ * skip through a wall however fast it moves, and a box that hits a wall on one axis still slides along it on the other.
+ * <p>
+ * Which tile types are solid is given as a bit mask with one bit per tile type, see {@link #HERO_SOLIDS} and
+ * {@link #ENEMY_SOLIDS}. Tiles the box already overlaps are ignored, so something that is stuck in a wall can walk out.
+ * Nothing here allocates.
+ */
+public final class TileCollider {
+    public static final int HERO_SOLIDS = 1 << TileGrid.WALL;
+    public static final int ENEMY_SOLIDS = 0b1111; // Walls, the entry, exits and traps
+    private static final float EPSILON = 0.001f; // Edges this close to a tile border count as touching it, not overlapping
+
+    private TileCollider() {
+    }
+
+    /**
+     * Moves a character by a vector, first horizontally, then vertically, stopping at solid tiles.
+     * The position before each axis is kept as the character's previous position, as the move methods do.
+     *
+     * @param character The character, its rectangle gives the size of the box.
+     * @param dx        The horizontal distance in world units.
+     * @param dy        The vertical distance in world units.
+     * @param grid      The tiles of the maze.
+     * @param solids    The tile types that block the character, one bit per type.
+     * @return {@code true} if the character moved the whole way.
+     */
+    public static boolean move(Character character, float dx, float dy, TileGrid grid, int solids) {
+        Rectangle box = character.getRect();
+        float x = character.getX();
+        float y = character.getY();
+        float movedX = 0;
+        float movedY = 0;
+        if (dx != 0) {
+            movedX = sweepX(grid, solids, x, y, box.width, box.height, dx);
+            character.setPrevX(x);
+            character.setX(x + movedX);
+        }
+        if (dy != 0) {
+            movedY = sweepY(grid, solids, x + movedX, y, box.width, box.height, dy);
+            character.setPrevY(y);
+            character.setY(y + movedY);
+        }
+        return movedX == dx && movedY == dy;
+    }
+
+    /**
+     * Sweeps a box horizontally.
+     *
+     * @param grid   The tiles of the maze.
+     * @param solids The tile types that block the box, one bit per type.
+     * @param x      The x-coordinate of the lower left corner of the box.
+     * @param y      The y-coordinate of the lower left corner of the box.
+     * @param width  The width of the box.
+     * @param height The height of the box.
+     * @param dx     The distance to move, negative to the left.
+     * @return How far the box can move, between 0 and dx. The box touches a solid tile if this is not dx.
+     */
+    public static float sweepX(TileGrid grid, int solids, float x, float y, float width, float height, float dx) {
+        int fromRow = firstTile(y);
+        int toRow = lastTile(y + height);
+        if (dx > 0) {
+            float front = x + width;
+            for (int column = lastTile(front) + 1, last = lastTile(front + dx); column <= last; column++) {
+                if (isSolid(grid, solids, column, fromRow, toRow, true)) {
+                    return Math.max(0, column * TileGrid.TILE_SIZE - front);
+                }
+            }
+        } else if (dx < 0) {
+            for (int column = firstTile(x) - 1, last = firstTile(x + dx); column >= last; column--) {
+                if (isSolid(grid, solids, column, fromRow, toRow, true)) {
+                    return Math.min(0, (column + 1) * TileGrid.TILE_SIZE - x);
+                }
+            }
+        }
+        return dx;
+    }
+
+    /**
+     * Sweeps a box vertically.
+     *
+     * @param grid   The tiles of the maze.
+     * @param solids The tile types that block the box, one bit per type.
+     * @param x      The x-coordinate of the lower left corner of the box.
+     * @param y      The y-coordinate of the lower left corner of the box.
+     * @param width  The width of the box.
+     * @param height The height of the box.
+     * @param dy     The distance to move, negative downwards.
+     * @return How far the box can move, between 0 and dy. The box touches a solid tile if this is not dy.
+     */
+    public static float sweepY(TileGrid grid, int solids, float x, float y, float width, float height, float dy) {
+        int fromColumn = firstTile(x);
+        int toColumn = lastTile(x + width);
+        if (dy > 0) {
+            float front = y + height;
+            for (int row = lastTile(front) + 1, last = lastTile(front + dy); row <= last; row++) {
+                if (isSolid(grid, solids, row, fromColumn, toColumn, false)) {
+                    return Math.max(0, row * TileGrid.TILE_SIZE - front);
+                }
+            }
+        } else if (dy < 0) {
+            for (int row = firstTile(y) - 1, last = firstTile(y + dy); row >= last; row--) {
+                if (isSolid(grid, solids, row, fromColumn, toColumn, false)) {
+                    return Math.min(0, (row + 1) * TileGrid.TILE_SIZE - y);
+                }
+            }
+        }
+        return dy;
+    }
+
+    /**
+     * Checks a column (or row) of tiles between two rows (or columns).
+     */
+    private static boolean isSolid(TileGrid grid, int solids, int line, int from, int to, boolean column) {
+        for (int i = from; i <= to; i++) {
+            int tile = column ? grid.get(line, i) : grid.get(i, line);
+            if (tile >= 0 && tile < 32 && (solids >>> tile & 1) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The first tile a box with this lower edge overlaps; an edge just below a border belongs to the next tile.
+     */
+    private static int firstTile(float edge) {
+        return MathUtils.floor((edge + EPSILON) / TileGrid.TILE_SIZE);
+    }
+
+    /**
+     * @return The last tile a box with this upper edge overlaps; an edge just above a border belongs to the tile before.
+     */
+    private static int lastTile(float edge) {
+        return MathUtils.ceil((edge - EPSILON) / TileGrid.TILE_SIZE) - 1;
+    }
+}
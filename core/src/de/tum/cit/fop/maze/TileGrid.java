@@ -0,0 +1,478 @@
+package de.tum.cit.fop.maze;
+
+import java.util.Arrays;
+
+/**
+ * The TileGrid class stores the tiles of the maze in fixed-size chunks of {@link #CHUNK_SIZE} x {@link #CHUNK_SIZE} tiles.
+ * Every chunk is a flat byte array and the chunks themselves sit in a flat array with an origin offset,
+ * so negative map coordinates are supported and looking up a tile creates no objects.
+ * <p>
+ * Small maps keep every chunk in memory. Very large compiled maps are streamed: the grid only knows their bounds and a
+ * {@link ChunkSource}, and a ChunkStreamer installs and evicts chunks around the camera. Tiles whose chunk is not
+ * resident are read from the source one at a time, so the game plays the same wherever the camera is, and only what
+ * is drawn is limited to the resident chunks.
+ */
+public class TileGrid {
+    public static final int EMPTY = -1; // Value returned for coordinates that have no tile
+    public static final int WALL = 0;
+    public static final int TILE_SIZE = 60; // Size of one tile in world units
+    public static final int CHUNK_SHIFT = 5;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_CHUNKS = 2;
+
+    private byte[][] chunks;
+    private int[] chunkVersions; // The version at which a tile of each chunk was last set, 0 if none was
+    private int originChunkX;
+    private int originChunkY;
+    private int chunksWide;
+    private int chunksHigh;
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+    private int size;
+    private ChunkSource source;
+    private int[] residentChunks = new int[16];
+    private int residentCount;
+    private int version; // Changed whenever tiles are set or replaced, lets render caches detect stale data
+    private int clearVersion; // The version of the last clear, every chunk changed then
+
+    /**
+     * A backing store that can produce the tiles of a single chunk, used for streamed maps.
+     * Implementations must be safe to call from a background thread.
+     */
+    public interface ChunkSource {
+        /**
+         * Fills the given array with the tiles of one chunk in row-major order, {@link #EMPTY} for no tile.
+         *
+         * @param chunkX The x-coordinate of the chunk.
+         * @param chunkY The y-coordinate of the chunk.
+         * @param tiles  The array to fill, {@link #CHUNK_SIZE} * {@link #CHUNK_SIZE} long.
+         */
+        void readChunk(int chunkX, int chunkY, byte[] tiles);
+
+        /**
+         * Returns the tile at the given tile coordinates inside the map.
+         *
+         * @param x The x-coordinate of the tile.
+         * @param y The y-coordinate of the tile.
+         * @return The tile type, or {@link #EMPTY} if there is no tile at this position.
+         */
+        int readTile(int x, int y);
+    }
+
+    /**
+     * Constructs an empty TileGrid. The chunks are allocated when tiles are set.
+     */
+    public TileGrid() {
+        clear();
+    }
+
+    /**
+     * Returns the tile type at the given tile coordinates.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The tile type, or {@link #EMPTY} if there is no tile at this position.
+     */
+    public int get(int x, int y) {
+        int chunkX = (x >> CHUNK_SHIFT) - originChunkX;
+        int chunkY = (y >> CHUNK_SHIFT) - originChunkY;
+        if (chunkX < 0 || chunkY < 0 || chunkX >= chunksWide || chunkY >= chunksHigh) {
+            return EMPTY;
+        }
+        byte[] chunk = chunks[chunkY * chunksWide + chunkX];
+        if (chunk == null) {
+            return source != null && x >= minX && x <= maxX && y >= minY && y <= maxY ? source.readTile(x, y) : EMPTY;
+        }
+        return chunk[((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK)];
+    }
+
+    /**
+     * Returns the tile type below the given world position.
+     * The coordinates are truncated the same way the collision checks always did it.
+     *
+     * @param worldX The x-coordinate in world units.
+     * @param worldY The y-coordinate in world units.
+     * @return The tile type, or {@link #EMPTY} if there is no tile at this position.
+     */
+    public int getAtWorld(float worldX, float worldY) {
+        return get((int) (worldX / TILE_SIZE), (int) (worldY / TILE_SIZE));
+    }
+
+    /**
+     * Sets the tile type at the given tile coordinates, growing the grid if needed.
+     *
+     * @param x    The x-coordinate of the tile.
+     * @param y    The y-coordinate of the tile.
+     * @param type The tile type, between 0 and 127.
+     */
+    public void set(int x, int y, int type) {
+        int chunkX = x >> CHUNK_SHIFT;
+        int chunkY = y >> CHUNK_SHIFT;
+        ensureContains(chunkX, chunkY);
+        int index = (chunkY - originChunkY) * chunksWide + (chunkX - originChunkX);
+        byte[] chunk = chunks[index];
+        if (chunk == null) {
+            chunk = newChunk();
+            chunks[index] = chunk;
+            addResident(index);
+        }
+        int tile = ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+        if (chunk[tile] == EMPTY) {
+            size++;
+        }
+        chunk[tile] = (byte) type;
+        version++;
+        chunkVersions[index] = version;
+        if (size == 1) {
+            minX = maxX = x;
+            minY = maxY = y;
+        } else {
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+    }
+
+    /**
+     * Copies a whole block of tiles into the grid, like setting every tile that is not {@link #EMPTY} but one chunk
+     * row at a time. Rows that land in a chunk without tiles are copied with a single arraycopy, and the grid version
+     * changes once for the whole block.
+     *
+     * @param originX The x-coordinate of the first tile in the block.
+     * @param originY The y-coordinate of the first tile in the block.
+     * @param width   The width of the block in tiles.
+     * @param height  The height of the block in tiles.
+     * @param block   The tile types in row-major order, {@link #EMPTY} for no tile.
+     */
+    public void setAll(int originX, int originY, int width, int height, byte[] block) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        ensureContains(originX >> CHUNK_SHIFT, originY >> CHUNK_SHIFT);
+        ensureContains((originX + width - 1) >> CHUNK_SHIFT, (originY + height - 1) >> CHUNK_SHIFT);
+        version++;
+        boolean bounded = size > 0;
+        int endX = originX + width;
+        for (int y = originY; y < originY + height; y++) {
+            int rowStart = (y & CHUNK_MASK) << CHUNK_SHIFT;
+            int rowIndex = ((y >> CHUNK_SHIFT) - originChunkY) * chunksWide - originChunkX;
+            int from = (y - originY) * width;
+            // One run per chunk the row crosses
+            for (int x = originX; x < endX; ) {
+                int run = Math.min(CHUNK_SIZE - (x & CHUNK_MASK), endX - x);
+                int first = -1;
+                int last = -1;
+                int count = 0;
+                for (int i = 0; i < run; i++) {
+                    if (block[from + i] != EMPTY) {
+                        if (first < 0) {
+                            first = i;
+                        }
+                        last = i;
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    int index = rowIndex + (x >> CHUNK_SHIFT);
+                    int tile = rowStart | (x & CHUNK_MASK);
+                    byte[] chunk = chunks[index];
+                    if (chunk == null) {
+                        chunk = newChunk();
+                        chunks[index] = chunk;
+                        addResident(index);
+                        // The gaps of the run are EMPTY and so is the new chunk
+                        System.arraycopy(block, from, chunk, tile, run);
+                        size += count;
+                    } else {
+                        for (int i = first; i <= last; i++) {
+                            byte type = block[from + i];
+                            if (type != EMPTY) {
+                                if (chunk[tile + i] == EMPTY) {
+                                    size++;
+                                }
+                                chunk[tile + i] = type;
+                            }
+                        }
+                    }
+                    chunkVersions[index] = version;
+                    if (!bounded) {
+                        minX = x + first;
+                        maxX = x + last;
+                        minY = maxY = y;
+                        bounded = true;
+                    } else {
+                        minX = Math.min(minX, x + first);
+                        minY = Math.min(minY, y);
+                        maxX = Math.max(maxX, x + last);
+                        maxY = Math.max(maxY, y);
+                    }
+                }
+                from += run;
+                x += run;
+            }
+        }
+    }
+
+    /**
+     * Turns this grid into a streamed grid over the given source. No chunk is resident afterwards.
+     *
+     * @param source The store the chunks are read from.
+     * @param minX   The smallest x-coordinate of the map.
+     * @param minY   The smallest y-coordinate of the map.
+     * @param maxX   The largest x-coordinate of the map.
+     * @param maxY   The largest y-coordinate of the map.
+     */
+    public void stream(ChunkSource source, int minX, int minY, int maxX, int maxY) {
+        clear();
+        this.source = source;
+        this.originChunkX = minX >> CHUNK_SHIFT;
+        this.originChunkY = minY >> CHUNK_SHIFT;
+        this.chunksWide = (maxX >> CHUNK_SHIFT) - originChunkX + 1;
+        this.chunksHigh = (maxY >> CHUNK_SHIFT) - originChunkY + 1;
+        this.chunks = new byte[chunksWide * chunksHigh][];
+        this.chunkVersions = new int[chunks.length];
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.size = (maxX - minX + 1) * (maxY - minY + 1);
+    }
+
+    /**
+     * Removes every tile from the grid.
+     */
+    public void clear() {
+        chunks = new byte[0][];
+        chunkVersions = new int[0];
+        originChunkX = 0;
+        originChunkY = 0;
+        chunksWide = 0;
+        chunksHigh = 0;
+        minX = 0;
+        minY = 0;
+        maxX = -1;
+        maxY = -1;
+        size = 0;
+        source = null;
+        residentCount = 0;
+        version++;
+        clearVersion = version;
+    }
+
+    /**
+     * Makes sure that the chunk array covers the given chunk.
+     * The array grows by at least doubling, so loading a map line by line stays linear.
+     */
+    private void ensureContains(int chunkX, int chunkY) {
+        if (chunksWide == 0) {
+            chunksWide = INITIAL_CHUNKS;
+            chunksHigh = INITIAL_CHUNKS;
+            originChunkX = chunkX;
+            originChunkY = chunkY;
+            chunks = new byte[chunksWide * chunksHigh][];
+            chunkVersions = new int[chunks.length];
+            return;
+        }
+        int column = chunkX - originChunkX;
+        int row = chunkY - originChunkY;
+        if (column >= 0 && row >= 0 && column < chunksWide && row < chunksHigh) {
+            return;
+        }
+        int newOriginX = originChunkX;
+        int newOriginY = originChunkY;
+        int newWidth = chunksWide;
+        int newHeight = chunksHigh;
+        if (column < 0) {
+            newWidth = Math.max(chunksWide * 2, chunksWide - column);
+            newOriginX = originChunkX + chunksWide - newWidth;
+        } else if (column >= chunksWide) {
+            newWidth = Math.max(chunksWide * 2, column + 1);
+        }
+        if (row < 0) {
+            newHeight = Math.max(chunksHigh * 2, chunksHigh - row);
+            newOriginY = originChunkY + chunksHigh - newHeight;
+        } else if (row >= chunksHigh) {
+            newHeight = Math.max(chunksHigh * 2, row + 1);
+        }
+        byte[][] newChunks = new byte[newWidth * newHeight][];
+        int[] newVersions = new int[newChunks.length];
+        int offsetX = originChunkX - newOriginX;
+        int offsetY = originChunkY - newOriginY;
+        for (int r = 0; r < chunksHigh; r++) {
+            System.arraycopy(chunks, r * chunksWide, newChunks, (r + offsetY) * newWidth + offsetX, chunksWide);
+            System.arraycopy(chunkVersions, r * chunksWide, newVersions, (r + offsetY) * newWidth + offsetX, chunksWide);
+        }
+        // Chunk indices change with the layout, rebuild the resident list
+        residentCount = 0;
+        for (int i = 0; i < newChunks.length; i++) {
+            if (newChunks[i] != null) {
+                addResident(i);
+            }
+        }
+        chunks = newChunks;
+        chunkVersions = newVersions;
+        originChunkX = newOriginX;
+        originChunkY = newOriginY;
+        chunksWide = newWidth;
+        chunksHigh = newHeight;
+    }
+
+    /**
+     * Allocates a chunk where every tile is empty.
+     *
+     * @return A new chunk array.
+     */
+    public static byte[] newChunk() {
+        byte[] chunk = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        Arrays.fill(chunk, (byte) EMPTY);
+        return chunk;
+    }
+
+    private void addResident(int index) {
+        if (residentCount == residentChunks.length) {
+            residentChunks = Arrays.copyOf(residentChunks, residentCount * 2);
+        }
+        residentChunks[residentCount++] = index;
+    }
+
+    /**
+     * Installs a chunk that was read from the source. Must be called on the thread that reads the grid.
+     *
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkY The y-coordinate of the chunk.
+     * @param tiles  The tiles of the chunk, the grid keeps the array if it installs it.
+     * @return {@code false} if the chunk is outside the map or already resident, then the array can be reused.
+     */
+    public boolean installChunk(int chunkX, int chunkY, byte[] tiles) {
+        int index = chunkIndex(chunkX, chunkY);
+        if (index < 0 || chunks[index] != null) {
+            return false;
+        }
+        chunks[index] = tiles;
+        addResident(index);
+        return true;
+    }
+
+    /**
+     * Drops a resident chunk of a streamed grid.
+     *
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkY The y-coordinate of the chunk.
+     * @return The array of the evicted chunk so it can be reused, or {@code null} if it was not resident.
+     */
+    public byte[] evictChunk(int chunkX, int chunkY) {
+        int index = chunkIndex(chunkX, chunkY);
+        if (source == null || index < 0 || chunks[index] == null) {
+            return null;
+        }
+        byte[] chunk = chunks[index];
+        chunks[index] = null;
+        for (int i = 0; i < residentCount; i++) {
+            if (residentChunks[i] == index) {
+                residentChunks[i] = residentChunks[--residentCount];
+                break;
+            }
+        }
+        return chunk;
+    }
+
+    private int chunkIndex(int chunkX, int chunkY) {
+        int column = chunkX - originChunkX;
+        int row = chunkY - originChunkY;
+        if (column < 0 || row < 0 || column >= chunksWide || row >= chunksHigh) {
+            return -1;
+        }
+        return row * chunksWide + column;
+    }
+
+    /**
+     * Returns whether the chunk containing the given tile is in memory.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return {@code true} if the chunk is resident.
+     */
+    public boolean isResident(int x, int y) {
+        int index = chunkIndex(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        return index >= 0 && chunks[index] != null;
+    }
+
+    public int getResidentChunkCount() {
+        return residentCount;
+    }
+
+    /**
+     * @param i The position in the list of resident chunks.
+     * @return The x-coordinate of the resident chunk.
+     */
+    public int getResidentChunkX(int i) {
+        return residentChunks[i] % chunksWide + originChunkX;
+    }
+
+    /**
+     * @param i The position in the list of resident chunks.
+     * @return The y-coordinate of the resident chunk.
+     */
+    public int getResidentChunkY(int i) {
+        return residentChunks[i] / chunksWide + originChunkY;
+    }
+
+    /**
+     * Returns a counter that changes whenever tiles are set, or the grid is cleared or streamed.
+     * Installing and evicting chunks of a streamed grid does not change it, the tiles themselves stay the same.
+     *
+     * @return The current version of the grid.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the version of the grid at which the tiles of one chunk last changed, so a cache of a chunk only has to
+     * be rebuilt when its own tiles were set. Like {@link #getVersion()} it ignores installing and evicting chunks.
+     *
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkY The y-coordinate of the chunk.
+     * @return The version of the last change of the chunk, or of the last clear if no tile of it was set since.
+     */
+    public int getChunkVersion(int chunkX, int chunkY) {
+        int index = chunkIndex(chunkX, chunkY);
+        return index < 0 || chunkVersions[index] == 0 ? clearVersion : chunkVersions[index];
+    }
+
+    public boolean isStreamed() {
+        return source != null;
+    }
+
+    public ChunkSource getSource() {
+        return source;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+}
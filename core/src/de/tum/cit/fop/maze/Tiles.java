@@ -1,7 +1,5 @@
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
@@ -13,19 +11,17 @@
 public class Tiles {
     private TextureRegion wall;// Texture region for wall tiles
     private TextureRegion grass; // Texture region for grass tiles
-    private Texture basictiles; // Texture containing basic tiles
     private static final Array<Rectangle> wallRectangles = new Array<>(); // Array to store wall rectangles
 
     private TextureRegion platform; // Texture region for platform tiles
 
     /**
-     * Constructs a new Tiles instance and loads textures for walls and grass tiles.
+     * Constructs a new Tiles instance and takes the regions for walls and grass tiles from the sprite atlas.
      */
     public Tiles() {
-        this.basictiles = new Texture(Gdx.files.internal("basictiles.png"));
-        this.wall = new TextureRegion(basictiles, 0, 0, 16, 16);
-        this.grass = new TextureRegion(basictiles, 0, 16* 8, 16, 16);
-        this.platform = new TextureRegion(basictiles, 16, 16 * 8, 16, 16); // Example platform texture location
+        this.wall = AnimationRegistry.getRegion("basictiles.png", 0, 0, 16, 16);
+        this.grass = AnimationRegistry.getRegion("basictiles.png", 0, 16* 8, 16, 16);
+        this.platform = AnimationRegistry.getRegion("basictiles.png", 16, 16 * 8, 16, 16); // Example platform texture location
     }
 
     public TextureRegion getPlatform() {
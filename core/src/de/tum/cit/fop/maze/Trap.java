@@ -1,14 +1,13 @@
 package de.tum.cit.fop.maze;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 /**
  * The Trap class represents a trap object in the MazeRunnerGame. It is a subclass of GameObject
  * and includes functionality specific to traps and other objects in the game.
  */
 public class Trap extends de.tum.cit.fop.maze.GameObject {
-    private static List<Trap> trapList = new ArrayList<>(); // List to store instances of Trap objects
 
     /**
      * Constructs a new Trap instance with the specified position.
@@ -18,10 +17,10 @@ public class Trap extends de.tum.cit.fop.maze.GameObject {
      */
     public Trap(float x,float y) {
         super(x,y,60,60); // Initializes the GameObject with the specified dimensions
-        this.animation = loadHorizontalAnimation("objects.png",64,48,16,16,7,0.1f);
     }
 
-    public static List<Trap> getTrapList() {
-        return trapList;
+    @Override
+    protected Animation<TextureRegion> loadAnimation() {
+        return loadHorizontalAnimation("objects.png",64,48,16,16,7,0.1f);
     }
 }
@@ -0,0 +1,86 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * The VisibilityCuller class finds the game objects that are inside the camera view, so only those are drawn.
+ * Enemies, traps and exits are looked up in the spatial hashes the Simulation keeps for its collision checks,
+ * platforms come from the column index of the MazeLoader, which the jump check uses as well.
+ * Finding the visible objects only looks at the cells around the view, so the cost does not grow with the map.
+ */
+public class VisibilityCuller {
+    private final SpatialHash<Trap> traps;
+    private final SpatialHash<Exit> exits;
+    private final PlatformIndex platforms;
+    private final EnemySystem enemies;
+    private final Array<Trap> visibleTraps = new Array<>(false, 32);
+    private final Array<Exit> visibleExits = new Array<>(false, 8);
+    private final Array<Rectangle> visiblePlatforms = new Array<>(false, 32);
+    private final IntArray visibleEnemies = new IntArray(false, 32);
+    private final Rectangle view = new Rectangle();
+
+    /**
+     * Constructs a VisibilityCuller for the current level.
+     *
+     * @param level      The level holding the platforms.
+     * @param simulation The Simulation whose spatial hashes are used for the other objects.
+     */
+    public VisibilityCuller(Level level, Simulation simulation) {
+        this.traps = simulation.getTrapIndex();
+        this.exits = simulation.getExitIndex();
+        this.enemies = simulation.getEnemies();
+        this.platforms = level.getPlatforms();
+    }
+
+    /**
+     * Computes the area of the world that the camera shows.
+     *
+     * @param camera The camera.
+     * @param out    The rectangle the view is written to.
+     * @return The given rectangle.
+     */
+    public static Rectangle getViewBounds(OrthographicCamera camera, Rectangle out) {
+        float width = camera.viewportWidth * camera.zoom;
+        float height = camera.viewportHeight * camera.zoom;
+        return out.set(camera.position.x - width / 2, camera.position.y - height / 2, width, height);
+    }
+
+    /**
+     * Collects the objects in view. Must be called after the simulation ran and before anything is drawn.
+     *
+     * @param camera The camera of the game screen.
+     */
+    public void update(OrthographicCamera camera) {
+        getViewBounds(camera, view);
+        visibleTraps.clear();
+        visibleExits.clear();
+        visiblePlatforms.clear();
+        visibleEnemies.clear();
+        traps.query(view.x, view.y, view.width, view.height, visibleTraps);
+        exits.query(view.x, view.y, view.width, view.height, visibleExits);
+        platforms.query(view.x, view.y, view.width, view.height, visiblePlatforms);
+        enemies.query(view, visibleEnemies);
+    }
+
+    public Array<Trap> getVisibleTraps() {
+        return visibleTraps;
+    }
+
+    public Array<Exit> getVisibleExits() {
+        return visibleExits;
+    }
+
+    public Array<Rectangle> getVisiblePlatforms() {
+        return visiblePlatforms;
+    }
+
+    /**
+     * @return The indices of the enemies in view, in the EnemySystem of the level.
+     */
+    public IntArray getVisibleEnemies() {
+        return visibleEnemies;
+    }
+}
@@ -0,0 +1,40 @@
+package de.tum.cit.fop.maze;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the active area of {@link EnemySystem}.
+ */
+class EnemySystemTest {
+
+    /**
+     * Ten enemies in a row, one every ten tiles, on a floor without walls.
+     */
+    private static EnemySystem row(int activeRadius) {
+        EnemySystem enemies = new EnemySystem();
+        enemies.setSeed(1);
+        enemies.setActiveRadius(activeRadius);
+        for (int i = 0; i < 10; i++) {
+            enemies.spawn(i * 10 * TileGrid.TILE_SIZE, 0);
+        }
+        return enemies;
+    }
+
+    @Test
+    void findsTheActiveEnemiesAfterSwitchingFromAllActive() {
+        TileGrid grid = new TileGrid();
+        EnemySystem switched = row(EnemySystem.ALL_ACTIVE);
+        switched.update(Simulation.STEP, grid);
+        assertEquals(10, switched.activeCount());
+        EnemySystem spawned = row(4);
+        switched.setActiveRadius(4);
+        switched.setFocus(0, 0);
+        spawned.setFocus(0, 0);
+        spawned.update(Simulation.STEP, grid);
+        switched.update(Simulation.STEP, grid);
+        assertEquals(1, spawned.activeCount());
+        assertEquals(spawned.activeCount(), switched.activeCount());
+    }
+}
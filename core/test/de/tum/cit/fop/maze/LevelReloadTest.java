@@ -0,0 +1,113 @@
+package de.tum.cit.fop.maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Loads every map in maps/ into one game, plays it for a second and unloads it, again and again, as restarting levels
+ * over and over does. Every map is loaded from its text and from its compiled form, which is memory-mapped. After the
+ * first rounds the level's objects must all come from the pools, and the direct buffers and mapped buffers, the native
+ * resources a load can hold on to, must not grow any more.
+ */
+class LevelReloadTest {
+    private static final int WARMUP_ROUNDS = 10; // The first rounds still load classes and fill the pools
+    private static final int ROUNDS = 50;
+
+    /**
+     * @return The text maps in maps/, each followed by a copy in the given directory with its compiled form next to
+     * it, so LevelData loads the compiled one.
+     */
+    private static List<String> maps(Path compiled) throws IOException {
+        List<String> maps = new ArrayList<>();
+        try (Stream<Path> files = Files.list(Path.of("maps"))) {
+            for (Path file : files.filter(name -> name.toString().endsWith(".properties")).sorted().toList()) {
+                maps.add(file.toString());
+                Path copy = Files.copy(file, compiled.resolve(file.getFileName()));
+                MazeBinary.write(LevelData.load(file.toString(), new MazeTextParser()).getMazeData(),
+                        MazeBinary.compiledPath(copy.toString()));
+                maps.add(copy.toString());
+            }
+        }
+        assertFalse(maps.isEmpty(), "no maps found");
+        return maps;
+    }
+
+    private static void play(MazeRunnerGame game, List<String> maps, int round) throws IOException {
+        MazeTextParser parser = new MazeTextParser();
+        for (String map : maps) {
+            LevelData level = LevelData.load(map, parser);
+            game.setHero(new Hero(0, 0, game));
+            game.getLevel().begin(level.getMazeData(), round);
+            game.getMazeLoader().calculateMaxCoordinates();
+            game.getMazeLoader().createObjects(level, 0, level.getEntityCount());
+            Simulation simulation = new Simulation(game);
+            for (int step = 0; step < 120; step++) {
+                simulation.step(Simulation.STEP, InputCommand.RIGHT);
+            }
+            game.unloadLevel();
+        }
+    }
+
+    /**
+     * Runs full garbage collections until the number of mapped buffers stops changing, a mapping is only released by a
+     * cleaner thread some time after its buffer was collected.
+     */
+    private static void collectGarbage(BufferPoolMXBean mapped) throws InterruptedException {
+        long count = -1;
+        for (int i = 0; i < 50 && (i < 3 || mapped.getCount() != count); i++) {
+            count = mapped.getCount();
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+
+    private static BufferPoolMXBean bufferPool(String name) {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void reloadingLevelsDoesNotGrow() throws IOException, InterruptedException {
+        Path compiled = Files.createTempDirectory("reload");
+        try {
+            List<String> maps = maps(compiled);
+            BufferPoolMXBean direct = bufferPool("direct");
+            BufferPoolMXBean mapped = bufferPool("mapped");
+            MazeRunnerGame game = new MazeRunnerGame(null);
+            for (int round = 1; round <= WARMUP_ROUNDS; round++) {
+                play(game, maps, round);
+            }
+            collectGarbage(mapped);
+            int pooled = game.getLevel().getPooledCount();
+            long directCount = direct.getCount();
+            long directMemory = direct.getMemoryUsed();
+            long mappedCount = mapped.getCount();
+            for (int round = WARMUP_ROUNDS + 1; round <= ROUNDS; round++) {
+                play(game, maps, round);
+            }
+            collectGarbage(mapped);
+            assertEquals(pooled, game.getLevel().getPooledCount(), "pooled objects");
+            assertEquals(directCount, direct.getCount(), "direct buffers");
+            assertEquals(directMemory, direct.getMemoryUsed(), "direct buffer memory");
+            assertEquals(mappedCount, mapped.getCount(), "mapped buffers");
+        } finally {
+            try (Stream<Path> files = Files.walk(compiled)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package de.tum.cit.fop.maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Tests for {@link MazeTextParser}: what it skips, the line breaks it accepts and the lines it rejects.
+ */
+class MazeTextParserTest {
+
+    private static TileGrid parse(String map) throws IOException {
+        TileGrid grid = new TileGrid();
+        new MazeTextParser().parse(new ByteArrayInputStream(map.getBytes(StandardCharsets.US_ASCII)), grid);
+        return grid;
+    }
+
+    /**
+     * Parses a map that must be rejected and returns the line the parser names.
+     */
+    private static int malformedLine(String map) throws IOException {
+        try {
+            parse(map);
+        } catch (MazeTextParser.MazeFormatException e) {
+            assertTrue(e.getMessage().contains("line " + e.getLine()), e.getMessage());
+            return e.getLine();
+        }
+        fail("accepted " + map);
+        return -1;
+    }
+
+    @Test
+    void readsTiles() throws IOException {
+        TileGrid grid = parse("0,0=0\n3,-2=1\n-5,7=4");
+        assertEquals(3, grid.size());
+        assertEquals(TileGrid.WALL, grid.get(0, 0));
+        assertEquals(1, grid.get(3, -2));
+        assertEquals(4, grid.get(-5, 7));
+        assertEquals(TileGrid.EMPTY, grid.get(1, 1));
+    }
+
+    @Test
+    void skipsComments() throws IOException {
+        TileGrid grid = parse("# Width=40\n1,1=2\n! 2,2=3\n#\n");
+        assertEquals(1, grid.size());
+        assertEquals(2, grid.get(1, 1));
+        assertEquals(TileGrid.EMPTY, grid.get(2, 2));
+    }
+
+    @Test
+    void skipsBlankLines() throws IOException {
+        TileGrid grid = parse("\n1,1=2\n\n   \n\t\n  2,2=3\n\n");
+        assertEquals(2, grid.size());
+        assertEquals(3, grid.get(2, 2));
+    }
+
+    @Test
+    void acceptsWindowsLineBreaks() throws IOException {
+        TileGrid grid = parse("# map\r\n1,1=2\r\n\r\n2,2=3\r\n");
+        assertEquals(2, grid.size());
+        assertEquals(2, grid.get(1, 1));
+        assertEquals(3, grid.get(2, 2));
+        assertEquals(3, malformedLine("1,1=2\r\n\r\n3,3=1\rx"));
+    }
+
+    @Test
+    void rejectsMalformedLines() throws IOException {
+        assertEquals(2, malformedLine("1,1=2\nWidth=40\n"));
+        assertEquals(2, malformedLine("1,1=2\nwall=0\n"));
+        assertEquals(1, malformedLine("1;1=2\n"));
+        assertEquals(1, malformedLine("1,1\n"));
+        assertEquals(1, malformedLine("1,1=\n"));
+        assertEquals(1, malformedLine("1,1=x\n"));
+        assertEquals(1, malformedLine("1,1=-2\n"));
+        assertEquals(1, malformedLine("1,1=200\n"));
+        assertEquals(3, malformedLine("1,1=2\n\n1,"));
+    }
+}
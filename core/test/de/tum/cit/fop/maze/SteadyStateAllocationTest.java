@@ -0,0 +1,179 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the game allocates nothing once it is warmed up, in the simulation steps and in the frames drawn of
+ * them. Every map in maps/ is played with a fixed pattern of walking, sprinting and jumping, with the camera following
+ * the hero. The first two seconds load classes, compile the hot code and grow the reused arrays.
+ * <p>
+ * The frames run through the same calls as {@link GameScreen#render(float)}: culling, submitting the sprites to the
+ * layers of a {@link RenderPipeline}, rendering it and updating the {@link HUD}. OpenGL is replaced by
+ * {@link NullGL20}, so the textures are loaded but nothing is drawn.
+ */
+class SteadyStateAllocationTest {
+    private static final long BUDGET = 8; // Bytes per step or frame, the counter itself is a little noisy
+    private static final int WARMUP_STEPS = 240;
+    private static final int MEASURED_STEPS = 6_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static HeadlessApplication application;
+
+    @BeforeAll
+    static void loadGraphics() {
+        application = new HeadlessApplication(new ApplicationAdapter() {
+        });
+        Gdx.gl = Gdx.gl20 = new NullGL20();
+        AnimationRegistry.setAtlas(new TextureAtlas(Gdx.files.internal(AtlasPacker.ATLAS)));
+    }
+
+    @AfterAll
+    static void exit() {
+        application.exit();
+    }
+
+    private static List<Path> maps() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of("maps"))) {
+            List<Path> maps = files.filter(name -> name.toString().endsWith(".properties")).sorted().toList();
+            assertFalse(maps.isEmpty(), "no maps found");
+            return maps;
+        }
+    }
+
+    private static MazeRunnerGame start(Path map) throws IOException {
+        MazeRunnerGame game = new MazeRunnerGame(null);
+        LevelData level = LevelData.load(map.toString(), new MazeTextParser());
+        game.setHero(new Hero(0, 0, game));
+        game.getLevel().begin(level.getMazeData(), 1);
+        game.getMazeLoader().calculateMaxCoordinates();
+        game.getMazeLoader().createObjects(level, 0, level.getEntityCount());
+        return game;
+    }
+
+    /**
+     * Walks a different way every half second, sprints every other time and jumps now and then.
+     */
+    private static int command(int step) {
+        return 1 << (step / 60 % 4) | (step / 120 % 2 == 0 ? InputCommand.SPRINT : 0)
+                | (step % 200 == 0 ? InputCommand.JUMP : 0);
+    }
+
+    private static OrthographicCamera camera() {
+        OrthographicCamera camera = new OrthographicCamera();
+        camera.viewportWidth = 1536;
+        camera.viewportHeight = 864;
+        camera.zoom = 0.5f;
+        return camera;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    void simulationStepsDoNotAllocate() throws IOException {
+        for (Path map : maps()) {
+            MazeRunnerGame game = start(map);
+            Simulation simulation = new Simulation(game);
+            VisibilityCuller culler = new VisibilityCuller(game.getLevel(), simulation);
+            OrthographicCamera camera = camera(); // The culler only reads the position and the viewport
+            long before = 0;
+            for (int step = 0; step < WARMUP_STEPS + MEASURED_STEPS; step++) {
+                if (step == WARMUP_STEPS) {
+                    before = allocatedBytes();
+                }
+                simulation.step(Simulation.STEP, command(step));
+                Hero hero = game.getHero();
+                hero.interpolate(0.5f);
+                camera.position.set(hero.getDrawX(), hero.getDrawY(), 0);
+                culler.update(camera);
+            }
+            long perStep = (allocatedBytes() - before) / MEASURED_STEPS;
+            assertTrue(perStep <= BUDGET, map + " allocates " + perStep + " bytes per step");
+            game.unloadLevel();
+        }
+    }
+
+    @Test
+    void framesDoNotAllocate() throws IOException {
+        SpriteBatch batch = new SpriteBatch();
+        BitmapFont font = new BitmapFont();
+        Languages languages = new Languages();
+        for (Path map : maps()) {
+            MazeRunnerGame game = start(map);
+            Hero hero = game.getHero();
+            Simulation simulation = new Simulation(game);
+            VisibilityCuller culler = new VisibilityCuller(game.getLevel(), simulation);
+            StaticLayerCache staticLayer = new StaticLayerCache(game);
+            RenderPipeline pipeline = new RenderPipeline(batch, staticLayer);
+            pipeline.setOverlay(spriteBatch -> font.draw(spriteBatch, "ESC", 0, 0));
+            HUD hud = new HUD(new ScreenViewport(), batch, hero, languages, font);
+            hud.toggleRenderCalls(); // The render stats are the only text that changes every frame
+            OrthographicCamera camera = camera();
+            long before = 0;
+            for (int step = 0; step < WARMUP_STEPS + MEASURED_STEPS; step++) {
+                if (step == WARMUP_STEPS) {
+                    before = allocatedBytes();
+                }
+                simulation.step(Simulation.STEP, command(step));
+                hero.interpolate(simulation.getAlpha());
+                camera.position.set(hero.getDrawX(), hero.getDrawY(), 0);
+                camera.update();
+                culler.update(camera);
+
+                game.getMazeLoader().renderPlatforms(culler.getVisiblePlatforms(),
+                        pipeline.getQueue(RenderPipeline.Layer.PLATFORMS));
+                SpriteQueue items = pipeline.getQueue(RenderPipeline.Layer.ITEMS);
+                game.getKey().draw(items, !hero.isKeyCollected());
+                game.getEntry().draw(items, game.getEntry().isOpen());
+                for (Exit exit : culler.getVisibleExits()) {
+                    exit.update(Simulation.STEP);
+                    exit.draw(items, exit.isOpen());
+                }
+                for (Trap trap : culler.getVisibleTraps()) {
+                    trap.update(Simulation.STEP);
+                    trap.draw(items, true);
+                }
+                SpriteQueue actors = pipeline.getQueue(RenderPipeline.Layer.ACTORS);
+                simulation.getEnemies().draw(actors, culler.getVisibleEnemies(), simulation.getAlpha(), false);
+                hero.draw(actors);
+                hud.drawLives(pipeline.getQueue(RenderPipeline.Layer.HUD));
+                pipeline.render(camera);
+
+                hud.setKeyStatus();
+                hud.setShield(!simulation.isVulnerable());
+                hud.setRenderStats(pipeline);
+                hud.draw();
+            }
+            long perFrame = (allocatedBytes() - before) / MEASURED_STEPS;
+            assertTrue(perFrame <= BUDGET, map + " allocates " + perFrame + " bytes per frame");
+            hud.dispose();
+            staticLayer.dispose();
+            game.unloadLevel();
+        }
+        font.dispose();
+        batch.dispose();
+    }
+}
@@ -0,0 +1,98 @@
+package de.tum.cit.fop.maze;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TileCollider}. A tile is {@value TileGrid#TILE_SIZE} world units wide, the boxes are 40 units like
+ * the hero's.
+ */
+class TileColliderTest {
+    private static final float SIZE = 40;
+    private static final float DELTA = 0.01f;
+    private static final int TRAP = 3;
+
+    private static TileGrid grid(int... tiles) {
+        TileGrid grid = new TileGrid();
+        for (int i = 0; i < tiles.length; i += 3) {
+            grid.set(tiles[i], tiles[i + 1], tiles[i + 2]);
+        }
+        return grid;
+    }
+
+    @Test
+    void stopsFlushAgainstAWall() {
+        TileGrid grid = grid(3, 0, TileGrid.WALL);
+        assertEquals(140, TileCollider.sweepX(grid, TileCollider.HERO_SOLIDS, 0, 10, SIZE, SIZE, 500), DELTA);
+        assertEquals(-10, TileCollider.sweepX(grid, TileCollider.HERO_SOLIDS, 250, 10, SIZE, SIZE, -500), DELTA);
+    }
+
+    @Test
+    void cannotTunnelThroughAThinWall() {
+        TileGrid grid = grid(5, 0, TileGrid.WALL);
+        // Twenty tiles in one step, the single wall tile in between still stops the box
+        assertEquals(260, TileCollider.sweepX(grid, TileCollider.HERO_SOLIDS, 0, 10, SIZE, SIZE, 1200), DELTA);
+        assertEquals(-340, TileCollider.sweepX(grid, TileCollider.HERO_SOLIDS, 700, 10, SIZE, SIZE, -1200), DELTA);
+        grid = grid(0, 5, TileGrid.WALL);
+        assertEquals(260, TileCollider.sweepY(grid, TileCollider.HERO_SOLIDS, 10, 0, SIZE, SIZE, 1200), DELTA);
+    }
+
+    @Test
+    void stopsAtTheFirstWallAtHighSpeed() {
+        TileGrid grid = grid(5, 0, TileGrid.WALL, 8, 0, TileGrid.WALL, 0, 7, TileGrid.WALL);
+        assertEquals(260, TileCollider.sweepX(grid, TileCollider.HERO_SOLIDS, 0, 10, SIZE, SIZE, 100_000), DELTA);
+        assertEquals(380, TileCollider.sweepY(grid, TileCollider.HERO_SOLIDS, 10, 0, SIZE, SIZE, 100_000), DELTA);
+        // Nothing in the way, the whole distance is returned unchanged
+        assertEquals(100_000, TileCollider.sweepX(grid, TileCollider.HERO_SOLIDS, 0, 200, SIZE, SIZE, 100_000), DELTA);
+    }
+
+    @Test
+    void slidesAlongAWallWhenMovingDiagonally() {
+        TileGrid grid = new TileGrid();
+        for (int row = 0; row < 6; row++) {
+            grid.set(3, row, TileGrid.WALL);
+        }
+        Hero hero = new Hero(140, 10, null);
+        assertFalse(TileCollider.move(hero, 20, 30, grid, TileCollider.HERO_SOLIDS));
+        assertEquals(140, hero.getX(), DELTA);
+        assertEquals(40, hero.getY(), DELTA);
+    }
+
+    @Test
+    void slidesPastTheCornerOfAWall() {
+        TileGrid grid = grid(3, 3, TileGrid.WALL);
+        // The horizontal move passes below the wall, the vertical one then hits its lower edge
+        Hero hero = new Hero(150, 130, null);
+        assertFalse(TileCollider.move(hero, 20, 20, grid, TileCollider.HERO_SOLIDS));
+        assertEquals(170, hero.getX(), DELTA);
+        assertEquals(140, hero.getY(), DELTA);
+    }
+
+    @Test
+    void doesNotSnagOnACornerItOnlyTouches() {
+        TileGrid grid = grid(3, 3, TileGrid.WALL);
+        // The upper right corner of the box touches the lower left corner of the wall
+        Hero hero = new Hero(140, 140, null);
+        assertTrue(TileCollider.move(hero, 20, 0, grid, TileCollider.HERO_SOLIDS));
+        assertEquals(160, hero.getX(), DELTA);
+        hero = new Hero(140, 140, null);
+        assertTrue(TileCollider.move(hero, 0, 20, grid, TileCollider.HERO_SOLIDS));
+        assertEquals(160, hero.getY(), DELTA);
+    }
+
+    @Test
+    void canWalkOutOfAWallItOverlaps() {
+        TileGrid grid = grid(3, 0, TileGrid.WALL);
+        assertEquals(-100, TileCollider.sweepX(grid, TileCollider.HERO_SOLIDS, 190, 10, SIZE, SIZE, -100), DELTA);
+    }
+
+    @Test
+    void onlyTheGivenTileTypesAreSolid() {
+        TileGrid grid = grid(3, 0, TRAP);
+        assertEquals(500, TileCollider.sweepX(grid, TileCollider.HERO_SOLIDS, 0, 10, SIZE, SIZE, 500), DELTA);
+        assertEquals(140, TileCollider.sweepX(grid, TileCollider.ENEMY_SOLIDS, 0, 10, SIZE, SIZE, 500), DELTA);
+    }
+}
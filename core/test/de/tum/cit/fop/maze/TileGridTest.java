@@ -0,0 +1,193 @@
+package de.tum.cit.fop.maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TileGrid}, mainly that it answers every collision check like the {@code HashMap<Point, Integer>}
+ * the maze used to be stored in.
+ */
+class TileGridTest {
+
+    /**
+     * Reads a map the way MazeLoader used to, one {@code x,y=type} line per tile.
+     */
+    private static Map<Point, Integer> loadPointMap(String fileName) throws IOException {
+        Map<Point, Integer> mazeData = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("=");
+                if (parts.length == 2) {
+                    String[] coordinates = parts[0].split(",");
+                    if (coordinates.length == 2) {
+                        int x = Integer.parseInt(coordinates[0].trim());
+                        int y = Integer.parseInt(coordinates[1].trim());
+                        mazeData.put(new Point(x, y), Integer.parseInt(parts[1].trim()));
+                    }
+                }
+            }
+        }
+        return mazeData;
+    }
+
+    private static TileGrid grid(int... tiles) {
+        TileGrid grid = new TileGrid();
+        for (int i = 0; i < tiles.length; i += 3) {
+            grid.set(tiles[i], tiles[i + 1], tiles[i + 2]);
+        }
+        return grid;
+    }
+
+    @Test
+    void collisionsMatchThePointMap() throws IOException {
+        List<Path> maps;
+        try (Stream<Path> files = Files.list(Path.of("maps"))) {
+            maps = files.filter(name -> name.toString().endsWith(".properties")).sorted().toList();
+        }
+        assertFalse(maps.isEmpty(), "no maps found");
+        for (Path map : maps) {
+            Map<Point, Integer> old = loadPointMap(map.toString());
+            TileGrid grid = LevelData.load(map.toString(), new MazeTextParser()).getMazeData();
+            assertEquals(old.size(), grid.size(), map + " tile count");
+            // Every few world units over the map and a margin around it, also left of and below the origin
+            int size = TileGrid.TILE_SIZE;
+            for (float y = (grid.getMinY() - 2) * size; y < (grid.getMaxY() + 3) * size; y += 7) {
+                for (float x = (grid.getMinX() - 2) * size; x < (grid.getMaxX() + 3) * size; x += 7) {
+                    // The old checks truncated the world position the same way
+                    Integer tile = old.get(new Point((int) (x / size), (int) (y / size)));
+                    int type = grid.getAtWorld(x, y);
+                    assertEquals(tile == null ? TileGrid.EMPTY : tile, type, map + " at " + x + ", " + y);
+                    boolean heroCouldMove = tile == null || tile != 0;
+                    assertEquals(heroCouldMove, type != TileGrid.WALL, map + " hero at " + x + ", " + y);
+                    boolean enemyCouldMove = tile == null || tile < 0 || tile > 3;
+                    boolean enemyCanMove = type < 0 || (TileCollider.ENEMY_SOLIDS >>> type & 1) == 0;
+                    assertEquals(enemyCouldMove, enemyCanMove, map + " enemy at " + x + ", " + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void growsInEveryDirection() {
+        TileGrid grid = new TileGrid();
+        grid.set(0, 0, 1);
+        grid.set(-70, -40, TileGrid.WALL);
+        grid.set(200, 3, 2);
+        grid.set(5, 130, 3);
+        assertEquals(1, grid.get(0, 0));
+        assertEquals(TileGrid.WALL, grid.get(-70, -40));
+        assertEquals(2, grid.get(200, 3));
+        assertEquals(3, grid.get(5, 130));
+        assertEquals(TileGrid.EMPTY, grid.get(1, 0));
+        assertEquals(TileGrid.EMPTY, grid.get(-1000, 1000));
+        assertEquals(4, grid.size());
+        assertEquals(-70, grid.getMinX());
+        assertEquals(-40, grid.getMinY());
+        assertEquals(200, grid.getMaxX());
+        assertEquals(130, grid.getMaxY());
+    }
+
+    @Test
+    void setAllMatchesSettingEveryTile() {
+        byte[] block = new byte[37 * 45];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = (byte) (i % 7 == 0 ? TileGrid.EMPTY : i % 5);
+        }
+        // Tiles inside the block that it leaves alone or overwrites, and one outside it
+        TileGrid bulk = grid(-3, 20, 2, 16, 55, TileGrid.WALL, 40, 100, 1);
+        int version = bulk.getVersion();
+        bulk.setAll(-20, 11, 37, 45, block);
+        assertEquals(version + 1, bulk.getVersion());
+        TileGrid single = grid(-3, 20, 2, 16, 55, TileGrid.WALL, 40, 100, 1);
+        for (int i = 0; i < block.length; i++) {
+            if (block[i] != TileGrid.EMPTY) {
+                single.set(-20 + i % 37, 11 + i / 37, block[i]);
+            }
+        }
+        assertEquals(single.size(), bulk.size());
+        assertEquals(single.getMinX(), bulk.getMinX());
+        assertEquals(single.getMinY(), bulk.getMinY());
+        assertEquals(single.getMaxX(), bulk.getMaxX());
+        assertEquals(single.getMaxY(), bulk.getMaxY());
+        for (int y = 0; y < 110; y++) {
+            for (int x = -30; x < 50; x++) {
+                assertEquals(single.get(x, y), bulk.get(x, y), x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    void onlyTheChangedChunkGetsANewVersion() {
+        TileGrid grid = new TileGrid();
+        grid.set(0, 0, 1);
+        grid.set(TileGrid.CHUNK_SIZE, 0, 1);
+        int first = grid.getChunkVersion(0, 0);
+        int second = grid.getChunkVersion(1, 0);
+        grid.set(TileGrid.CHUNK_SIZE + 3, 4, TileGrid.WALL);
+        assertEquals(first, grid.getChunkVersion(0, 0));
+        assertNotEquals(second, grid.getChunkVersion(1, 0));
+        // A block only stamps the chunks it puts tiles into
+        second = grid.getChunkVersion(1, 0);
+        grid.setAll(-2, 0, 2, 2, new byte[] {1, TileGrid.EMPTY, 2, TileGrid.EMPTY});
+        assertEquals(first, grid.getChunkVersion(0, 0));
+        assertEquals(second, grid.getChunkVersion(1, 0));
+        assertEquals(grid.getVersion(), grid.getChunkVersion(-1, 0));
+        // Growing the grid moves the chunks but keeps their versions
+        grid.set(-5 * TileGrid.CHUNK_SIZE, 0, 1);
+        assertEquals(first, grid.getChunkVersion(0, 0));
+        grid.clear();
+        assertTrue(grid.getChunkVersion(0, 0) > first);
+    }
+
+    @Test
+    void streamedTilesReadTheSameWhetherResidentOrNot() {
+        TileGrid map = new TileGrid();
+        for (int y = 0; y < 70; y++) {
+            for (int x = 0; x < 90; x++) {
+                map.set(x, y, (x * 7 + y * 3) % 5 == 0 ? TileGrid.WALL : 1 + (x + y) % 3);
+            }
+        }
+        TileGrid.ChunkSource source = new TileGrid.ChunkSource() {
+            @Override
+            public void readChunk(int chunkX, int chunkY, byte[] tiles) {
+                for (int i = 0; i < tiles.length; i++) {
+                    tiles[i] = (byte) map.get((chunkX << TileGrid.CHUNK_SHIFT) + (i & TileGrid.CHUNK_SIZE - 1),
+                            (chunkY << TileGrid.CHUNK_SHIFT) + (i >> TileGrid.CHUNK_SHIFT));
+                }
+            }
+
+            @Override
+            public int readTile(int x, int y) {
+                return map.get(x, y);
+            }
+        };
+        TileGrid streamed = new TileGrid();
+        streamed.stream(source, 0, 0, 89, 69);
+        byte[] tiles = TileGrid.newChunk();
+        source.readChunk(1, 1, tiles);
+        assertTrue(streamed.installChunk(1, 1, tiles));
+        assertFalse(streamed.installChunk(1, 1, TileGrid.newChunk()));
+        assertFalse(streamed.installChunk(9, 0, TileGrid.newChunk()));
+        for (int y = -5; y < 75; y++) {
+            for (int x = -5; x < 95; x++) {
+                assertEquals(map.get(x, y), streamed.get(x, y), x + ", " + y);
+            }
+        }
+    }
+}
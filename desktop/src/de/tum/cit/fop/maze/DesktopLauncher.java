@@ -5,6 +5,10 @@
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import games.spooky.gdx.nativefilechooser.desktop.DesktopFileChooser;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * The DesktopLauncher class is the entry point for the desktop version of the Maze Runner game.
  * It sets up the game window and launches the game using LibGDX framework.
@@ -13,7 +17,9 @@ public class DesktopLauncher {
 	/**
 	 * The main method sets up the configuration for the game window and starts the application.
 	 *
-	 * @param arg Command line arguments (not used in this application)
+	 * @param arg Command line arguments, {@code --parallel-enemies} advances the enemies on all cores,
+	 *            {@code --record <file>} records the input of every level, {@code --replay <file>} plays a recording
+	 *            and {@code --active-radius <tiles>} sets how far around the hero enemies are simulated, 0 for all
 	 */
 	public static void main(String[] arg) {
 		// Configuration for the game window
@@ -30,7 +36,40 @@ public static void main(String[] arg) {
 		config.useVsync(true); // Enable vertical sync
 		config.setForegroundFPS(60); // Set the foreground frames per second
 
+		MazeRunnerGame game = new MazeRunnerGame(new DesktopFileChooser());
+		List<String> args = Arrays.asList(arg);
+		game.setParallelEnemies(args.contains("--parallel-enemies"));
+		int record = args.indexOf("--record");
+		if (record >= 0 && record + 1 < arg.length) {
+			game.setRecordPath(arg[record + 1]);
+		}
+		int activeRadius = args.indexOf("--active-radius");
+		if (activeRadius >= 0 && activeRadius + 1 < arg.length) {
+			game.setEnemyActiveRadius(Integer.parseInt(arg[activeRadius + 1]));
+		}
+		int replay = args.indexOf("--replay");
+		if (replay >= 0 && replay + 1 < arg.length) {
+			try {
+				game.setPendingReplay(Replay.read(arg[replay + 1]));
+				game.setReplayListener(new SimulationListener() {
+					@Override
+					public void replayEnded(long steps, long checksum, long recordedChecksum) {
+						if (checksum == recordedChecksum) {
+							System.out.println("Replay finished after " + steps + " steps, the world matches the recording");
+						} else {
+							System.out.println("Replay DIVERGED: after " + steps + " steps the checksum is "
+									+ Long.toHexString(checksum) + ", the recording ended with "
+									+ Long.toHexString(recordedChecksum));
+						}
+					}
+				});
+			} catch (IOException e) {
+				System.err.println("Cannot read replay " + arg[replay + 1] + ": " + e.getMessage());
+				System.exit(1);
+			}
+		}
+
 		// Launch the game
-		new Lwjgl3Application(new MazeRunnerGame(new DesktopFileChooser()), config);
+		new Lwjgl3Application(game, config);
 	}
 }
@@ -0,0 +1,329 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * The HeadlessRunner class plays levels without a window, a GPU or an audio device, for balancing and regression tests.
+ * It runs on the libGDX headless backend and drives the {@link Simulation} directly with scripted or replayed input,
+ * as fast as the CPU allows and on all cores. Every game is written as one CSV line with its outcome.
+ * <p>
+ * Usage: {@code HeadlessRunner [options]}, run it with the :desktop:runHeadless Gradle task.
+ * <ul>
+ *     <li>{@code --map <file>} the map to play, every map in maps/ if omitted</li>
+ *     <li>{@code --games <n>} the number of games per map, 100 by default and 1 for a replay</li>
+ *     <li>{@code --input <spec>} {@code random} (default), {@code idle}, {@code script:<file>} or
+ *     {@code replay:<file>}; a replay brings its own map and seed</li>
+ *     <li>{@code --seconds <n>} the simulated time after which a game ends undecided, 120 by default</li>
+ *     <li>{@code --seed <n>} the seed the game seeds are derived from, 1 by default</li>
+ *     <li>{@code --active-radius <n>} how far around the hero enemies are simulated in tiles, 0 for all enemies;
+ *     the game's default if omitted</li>
+ *     <li>{@code --threads <n>} the number of games played at the same time, all cores by default</li>
+ *     <li>{@code --out <file>} the CSV file, standard output if omitted</li>
+ * </ul>
+ * A script has one line per stretch of held keys: the number of steps, then the held inputs, e.g.
+ * {@code 240 RIGHT SPRINT}. The inputs are LEFT, RIGHT, UP, DOWN, SPRINT and JUMP; after the last line nothing is held.
+ * <p>
+ * The exit status is 0 if every game ran, 1 if a game failed with an exception, a replay diverged from its recording
+ * or the runner itself failed, and 2 for invalid options, so a CI job fails on any of them.
+ */
+public class HeadlessRunner {
+    private static final int STEPS_PER_SECOND = Math.round(1 / Simulation.STEP);
+
+    private final List<String> maps = new ArrayList<>();
+    private int games = -1; // Not given
+    private String input = "random";
+    private int seconds = 120;
+    private long seed = 1;
+    private int activeRadius = -1; // Not given
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String out;
+    private Replay replay;
+    private int[] script;
+
+    /**
+     * Reads the options and runs the games inside a headless application.
+     *
+     * @param args The command line options, see the class description.
+     */
+    public static void main(String[] args) {
+        HeadlessRunner runner = new HeadlessRunner();
+        try {
+            runner.parse(args);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = -1; // Everything happens in create
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                boolean passed;
+                try {
+                    passed = runner.run();
+                } catch (IOException | InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    passed = false;
+                }
+                if (!passed) {
+                    System.exit(1); // The results are written, only the exit status is left to report
+                }
+                Gdx.app.exit();
+            }
+        }, config);
+    }
+
+    private void parse(String[] args) throws IOException {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--map" -> maps.add(value);
+                case "--games" -> games = Integer.parseInt(value);
+                case "--input" -> input = value;
+                case "--seconds" -> seconds = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--active-radius" -> activeRadius = Integer.parseInt(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--out" -> out = value;
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (input.startsWith("replay:")) {
+            replay = Replay.read(input.substring("replay:".length()));
+            maps.clear();
+            maps.add(replay.getMapPath());
+        } else if (input.startsWith("script:")) {
+            script = readScript(input.substring("script:".length()));
+        } else if (!input.equals("random") && !input.equals("idle")) {
+            throw new IllegalArgumentException("Unknown input " + input);
+        }
+        if (games < 0) {
+            games = replay != null ? 1 : 100;
+        }
+        if (maps.isEmpty()) {
+            try (Stream<Path> files = Files.list(Path.of("maps"))) {
+                files.map(Path::toString).filter(name -> name.endsWith(".properties")).sorted().forEach(maps::add);
+            }
+        }
+    }
+
+    /**
+     * Plays every game and writes the results in the order the games were started.
+     *
+     * @return {@code false} if a game failed with an exception or a replay diverged from its recording.
+     */
+    private boolean run() throws IOException, InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long steps = 0;
+        int played = 0;
+        int failed = 0;
+        try (PrintWriter csv = new PrintWriter(out != null ? new FileWriter(out, StandardCharsets.UTF_8)
+                : new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            csv.println("game,map,seed,input,outcome,steps,seconds,lives,key,checksum");
+            for (String map : maps) {
+                LevelData level = LevelData.load(map, new MazeTextParser());
+                loadAllChunks(level.getMazeData()); // The level is shared by the games, nothing may load later
+                List<Future<Result>> results = new ArrayList<>();
+                for (int game = 0; game < games; game++) {
+                    long gameSeed = replay != null ? replay.getSeed() : mix(seed + game);
+                    results.add(executor.submit(() -> play(level, gameSeed)));
+                }
+                for (int game = 0; game < results.size(); game++) {
+                    Result result = results.get(game).get();
+                    csv.printf(Locale.ROOT, "%d,%s,%d,%s,%s,%d,%.3f,%d,%b,%016x%n", played, map, result.seed, input, result.outcome,
+                            result.steps, result.steps * Simulation.STEP, result.lives, result.key, result.checksum);
+                    steps += result.steps;
+                    played++;
+                    if (result.outcome.startsWith("error")) {
+                        System.err.println("Game " + (played - 1) + " on " + map + " failed with " + result.outcome);
+                        failed++;
+                    }
+                    if (replay != null) {
+                        boolean matches = result.steps == replay.getSteps() && result.checksum == replay.getChecksum();
+                        System.err.println(matches ? "Replay matches the recording"
+                                : "Replay DIVERGED from the recording");
+                        if (!matches) {
+                            failed++;
+                        }
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.err.printf(Locale.ROOT, "%d games, %d steps in %.2f s on %d threads: %.0f games/s, %.0f steps/s%n", played, steps,
+                elapsed, threads, played / elapsed, steps / elapsed);
+        return failed == 0;
+    }
+
+    /**
+     * Plays one game from the start of the level until the hero wins, dies or the time is up.
+     */
+    private Result play(LevelData level, long gameSeed) {
+        Result result = new Result();
+        result.seed = gameSeed;
+        try {
+            MazeRunnerGame game = new MazeRunnerGame(null);
+            game.setHero(new Hero(0, 0, game));
+            if (activeRadius >= 0) {
+                game.setEnemyActiveRadius(activeRadius);
+            }
+            game.getLevel().begin(level.getMazeData(), gameSeed);
+            MazeLoader mazeLoader = game.getMazeLoader();
+            mazeLoader.calculateMaxCoordinates();
+            mazeLoader.createObjects(level, 0, level.getEntityCount());
+            Simulation simulation = new Simulation(game);
+            Hero hero = game.getHero();
+            Replay commands = replay != null ? replay.copy() : null;
+            Random random = new Random(gameSeed);
+            int maxSteps = commands != null ? commands.getSteps() : seconds * STEPS_PER_SECOND;
+            int held = 0;
+            result.outcome = "timeout";
+            while (result.steps < maxSteps) {
+                int command;
+                if (commands != null) {
+                    command = commands.next();
+                } else if (script != null) {
+                    command = result.steps < script.length ? script[result.steps] : 0;
+                } else if (input.equals("random")) {
+                    // Hold a direction for half a second to two seconds, sometimes sprinting, and jump now and then
+                    if (result.steps % (STEPS_PER_SECOND / 2) == 0 && random.nextInt(3) == 0) {
+                        held = (1 << random.nextInt(4)) | (random.nextInt(4) == 0 ? InputCommand.SPRINT : 0);
+                    }
+                    command = held | (random.nextInt(STEPS_PER_SECOND * 5) == 0 ? InputCommand.JUMP : 0);
+                } else {
+                    command = 0;
+                }
+                simulation.step(Simulation.STEP, command);
+                result.steps++;
+                // A replay runs to its end, the recording went on until the screen was left
+                if (commands == null && (hero.isWinner() || hero.isDead())) {
+                    result.outcome = hero.isWinner() ? "win" : "death";
+                    break;
+                }
+            }
+            if (commands != null) {
+                result.outcome = hero.isWinner() ? "win" : hero.isDead() ? "death" : "timeout";
+            }
+            result.lives = hero.getLives();
+            result.key = hero.isKeyCollected();
+            result.checksum = simulation.checksum();
+        } catch (RuntimeException e) {
+            result.outcome = "error: " + e.getClass().getSimpleName(); // E.g. a map without key or entry
+        }
+        return result;
+    }
+
+    /**
+     * Reads a script into one command per step.
+     */
+    private static int[] readScript(String fileName) throws IOException {
+        List<int[]> stretches = new ArrayList<>();
+        int total = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] tokens = line.trim().split("\\s+");
+                if (tokens[0].isEmpty() || tokens[0].startsWith("#")) {
+                    continue;
+                }
+                int command = 0;
+                for (int i = 1; i < tokens.length; i++) {
+                    command |= switch (tokens[i].toUpperCase()) {
+                        case "LEFT" -> InputCommand.LEFT;
+                        case "RIGHT" -> InputCommand.RIGHT;
+                        case "UP" -> InputCommand.UP;
+                        case "DOWN" -> InputCommand.DOWN;
+                        case "SPRINT" -> InputCommand.SPRINT;
+                        case "JUMP" -> InputCommand.JUMP;
+                        default -> throw new IOException(fileName + ":" + lineNumber + ": unknown input " + tokens[i]);
+                    };
+                }
+                int steps;
+                try {
+                    steps = Integer.parseInt(tokens[0]);
+                } catch (NumberFormatException e) {
+                    throw new IOException(fileName + ":" + lineNumber + ": expected a number of steps");
+                }
+                stretches.add(new int[]{steps, command});
+                total += steps;
+            }
+        }
+        int[] commands = new int[total];
+        int step = 0;
+        for (int[] stretch : stretches) {
+            for (int i = 0; i < stretch[0]; i++) {
+                // A jump is pressed once, at the start of its stretch
+                commands[step++] = i == 0 ? stretch[1] : stretch[1] & ~InputCommand.JUMP;
+            }
+        }
+        return commands;
+    }
+
+    /**
+     * Makes every chunk of a streamed map resident, since no ChunkStreamer follows the games. The games would play the
+     * same without it, but reading every tile from the mapped file on its own is slower.
+     */
+    private static void loadAllChunks(TileGrid grid) {
+        if (!grid.isStreamed()) {
+            return;
+        }
+        for (int chunkY = grid.getMinY() >> TileGrid.CHUNK_SHIFT; chunkY <= grid.getMaxY() >> TileGrid.CHUNK_SHIFT;
+             chunkY++) {
+            for (int chunkX = grid.getMinX() >> TileGrid.CHUNK_SHIFT; chunkX <= grid.getMaxX() >> TileGrid.CHUNK_SHIFT;
+                 chunkX++) {
+                byte[] tiles = TileGrid.newChunk();
+                grid.getSource().readChunk(chunkX, chunkY, tiles);
+                grid.installChunk(chunkX, chunkY, tiles);
+            }
+        }
+    }
+
+    /**
+     * Spreads consecutive numbers over all bits, so neighbouring games get unrelated seeds.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Result {
+        long seed;
+        String outcome;
+        int steps;
+        int lives;
+        boolean key;
+        long checksum;
+    }
+}